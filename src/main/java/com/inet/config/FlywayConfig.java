@@ -0,0 +1,32 @@
+package com.inet.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Flyway 마이그레이션 실행 시점 설정
+ * 테이블은 JPA(ddl-auto=update)가 엔티티로 만들고, 인덱스/제약 조건은 db/migration 의 마이그레이션으로 관리합니다.
+ * 기본 설정은 JPA 보다 먼저 마이그레이션을 실행하므로 새 DB 에서는 테이블이 없어 실패합니다.
+ * 그래서 기본 실행은 건너뛰고, EntityManagerFactory 가 테이블을 만든 뒤에 마이그레이션을 실행합니다.
+ */
+@Configuration
+public class FlywayConfig {
+
+    // 스프링 부트 기본 초기화(JPA 보다 먼저 실행)에서는 마이그레이션하지 않음
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+        };
+    }
+
+    // JPA 가 테이블을 만든 뒤 마이그레이션 실행
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean flywayMigrationAfterJpa(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,55 @@
+package com.inet.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * id_generator 테이블 초기화
+ * 장비/고유번호/관리번호/취급자/교실은 JDBC 배치 저장을 위해 IDENTITY 대신 테이블 기반 pooled 생성기를 사용합니다.
+ * 기존 AUTO_INCREMENT 로 발급된 id 와 겹치지 않도록, 시작할 때 각 생성기 값을 테이블의 최대 id 이후로 맞춥니다.
+ * 웹 서버가 요청을 받기 전에 맞춰야 하므로 ApplicationRunner 가 아니라 빈 초기화 단계에서 실행합니다.
+ * (JPA 가 테이블을 만든 뒤여야 하므로 EntityManagerFactory 다음에 초기화)
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdGeneratorInitializer implements InitializingBean {
+
+    // 엔티티의 @TableGenerator allocationSize 와 같아야 함
+    private static final int ALLOCATION_SIZE = 50;
+
+    // {생성기 이름, 테이블, id 컬럼}
+    private static final String[][] GENERATORS = {
+            {"device", "device", "device_id"},
+            {"uid", "uid", "uid_id"},
+            {"manage", "manage", "manage_id"},
+            {"operator", "operator", "operator_id"},
+            {"classroom", "classroom", "classroom_id"},
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String[] generator : GENERATORS) {
+            String name = generator[0];
+            String table = generator[1];
+            String idColumn = generator[2];
+
+            jdbcTemplate.update("INSERT IGNORE INTO id_generator (gen_name, next_val) VALUES (?, ?)",
+                    name, ALLOCATION_SIZE);
+            // pooled 생성기는 저장된 값을 할당 구간의 끝으로 사용하므로 최대 id + 할당 크기 이상이어야 함
+            int updated = jdbcTemplate.update(
+                    "UPDATE id_generator SET next_val = GREATEST(next_val, "
+                            + "(SELECT COALESCE(MAX(" + idColumn + "), 0) + ? FROM " + table + ")) "
+                            + "WHERE gen_name = ?",
+                    ALLOCATION_SIZE, name);
+            log.info("id_generator '{}' 초기화 완료 (갱신 행 수: {})", name, updated);
+        }
+    }
+}
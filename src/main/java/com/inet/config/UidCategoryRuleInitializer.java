@@ -0,0 +1,31 @@
+package com.inet.config;
+
+import com.inet.repository.UidCategoryRuleRepository;
+import com.inet.service.UidCategoryClassifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * uid_category_rule 테이블 초기화
+ * 규칙 테이블이 비어 있으면 기존에 코드로 정해져 있던 기본 규칙을 등록하고, 분류기에 DB 의 규칙을 읽어 들입니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UidCategoryRuleInitializer implements ApplicationRunner {
+
+    private final UidCategoryRuleRepository ruleRepository;
+    private final UidCategoryClassifier classifier;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (ruleRepository.count() == 0) {
+            ruleRepository.saveAll(UidCategoryClassifier.defaultRules());
+            log.info("UID 카테고리 기본 규칙을 등록했습니다.");
+        }
+        classifier.reload();
+    }
+}
@@ -12,7 +12,20 @@ import com.inet.service.SchoolService;
 import com.inet.service.OperatorService;
 import com.inet.service.ClassroomService;
 import com.inet.service.ManageService;
+import com.inet.service.DeviceExportCache;
+import com.inet.service.DeviceBulkExportService;
+import com.inet.service.DeviceExportRowWriter;
+import com.inet.service.ExportProgress;
+import com.inet.service.ExportJob;
+import com.inet.service.DeviceExportJobService;
+import com.inet.service.DeviceMapItem;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import java.nio.file.Path;
+import java.util.concurrent.RejectedExecutionException;
 import com.inet.config.Views;
+import com.inet.repository.DeviceFilter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
@@ -25,11 +38,15 @@ import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.stream.Collectors;
+import java.util.Set;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.nio.file.Files;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.io.IOException;
 import org.springframework.http.HttpStatus;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -52,88 +69,39 @@ public class DeviceController {
     private final ClassroomService classroomService;
     private final ManageService manageService;
     private final UidService uidService;
+    private final DeviceExportCache deviceExportCache;
+    private final DeviceBulkExportService deviceBulkExportService;
+    private final DeviceExportJobService deviceExportJobService;
 
     @GetMapping("/list")
-    public String list(@RequestParam(required = false) Long schoolId,
-                      @RequestParam(required = false) String type,
-                      @RequestParam(required = false) Long classroomId,
+    public String list(DeviceFilter filter,
                       @RequestParam(defaultValue = "1") int page,
                       @RequestParam(defaultValue = "10") int size,
+                      @RequestParam(required = false) Long after,
                       Model model) {
         
         model.addAttribute("schools", schoolService.getAllSchools());
         model.addAttribute("types", deviceService.getAllTypes());
-        model.addAttribute("selectedSchoolId", schoolId);
-        model.addAttribute("selectedType", type);
-        model.addAttribute("selectedClassroomId", classroomId);
+        model.addAttribute("selectedSchoolId", filter.getSchoolId());
+        model.addAttribute("selectedType", filter.getType());
+        model.addAttribute("selectedClassroomId", filter.getClassroomId());
+        model.addAttribute("filter", filter);
 
         // 선택된 학교의 교실 목록 조회
-        if (schoolId != null) {
-            model.addAttribute("classrooms", classroomService.findBySchoolId(schoolId));
+        if (filter.getSchoolId() != null) {
+            model.addAttribute("classrooms", classroomService.findBySchoolId(filter.getSchoolId()));
         } else {
             model.addAttribute("classrooms", classroomService.getAllClassrooms());
         }
 
-        // 모든 장비를 가져와서 교실별로 정렬
-        List<Device> allDevices = deviceService.findFiltered(schoolId, type, classroomId);
-        
-        // 교실별로 정렬 (교실명 기준)
-        allDevices.sort((d1, d2) -> {
-            String classroom1 = d1.getClassroom() != null && d1.getClassroom().getRoomName() != null ? 
-                             d1.getClassroom().getRoomName() : "미지정 교실";
-            String classroom2 = d2.getClassroom() != null && d2.getClassroom().getRoomName() != null ? 
-                             d2.getClassroom().getRoomName() : "미지정 교실";
-            return classroom1.compareTo(classroom2);
-        });
-        
-        // 교실별로 그룹화
-        Map<String, List<Device>> devicesByClassroom = allDevices.stream()
-            .collect(Collectors.groupingBy(device -> 
-                device.getClassroom() != null && device.getClassroom().getRoomName() != null ? 
-                device.getClassroom().getRoomName() : "미지정 교실",
-                LinkedHashMap::new, Collectors.toList()
-            ));
-        
-        // 각 교실 내에서 세트타입 > 담당자 순으로 정렬
-        for (List<Device> devices : devicesByClassroom.values()) {
-            devices.sort((d1, d2) -> {
-                // 세트타입 기준 정렬 (있으면 우선)
-                boolean hasSetType1 = d1.getSetType() != null && !d1.getSetType().trim().isEmpty();
-                boolean hasSetType2 = d2.getSetType() != null && !d2.getSetType().trim().isEmpty();
-                
-                if (hasSetType1 && hasSetType2) {
-                    int setTypeCompare = d1.getSetType().compareTo(d2.getSetType());
-                    if (setTypeCompare != 0) return setTypeCompare;
-                } else if (hasSetType1) {
-                    return -1; // d1만 세트타입이 있으면 앞으로
-                } else if (hasSetType2) {
-                    return 1;  // d2만 세트타입이 있으면 앞으로
-                }
-                
-                // 담당자 기준 정렬
-                String operator1 = d1.getOperator() != null && d1.getOperator().getName() != null ? 
-                                 d1.getOperator().getName() : "미지정 담당자";
-                String operator2 = d2.getOperator() != null && d2.getOperator().getName() != null ? 
-                                 d2.getOperator().getName() : "미지정 담당자";
-                return operator1.compareTo(operator2);
-            });
-        }
-        
-        // 교실별 그룹을 페이징 처리를 위한 단일 리스트로 변환
-        List<Device> paginatedDevices = new ArrayList<>();
-        for (List<Device> classroomDevices : devicesByClassroom.values()) {
-            paginatedDevices.addAll(classroomDevices);
-        }
-        
-        // 페이징 처리
-        int totalDevices = paginatedDevices.size();
-        int totalPages = (int) Math.ceil((double) totalDevices / size);
-        int fromIndex = (page - 1) * size;
-        int toIndex = Math.min(fromIndex + size, totalDevices);
-        
-        List<Device> currentPageDevices = paginatedDevices.subList(fromIndex, toIndex);
-        
-        log.info("현재 페이지: {}, 장비 수: {}, 전체 장비 수: {}", page, currentPageDevices.size(), totalDevices);
+        // 교실 → 세트타입 → 담당자 순 정렬과 페이징은 DB 에서 처리 (다음 페이지는 이전 페이지 마지막 장비 다음부터 조회)
+        page = Math.max(page, 1);
+        size = Math.max(size, 1);
+        Page<Device> devicePage = deviceService.getListPage(filter, PageRequest.of(page - 1, size), after);
+        List<Device> currentPageDevices = devicePage.getContent();
+        int totalPages = devicePage.getTotalPages();
+
+        log.info("현재 페이지: {}, 장비 수: {}, 전체 장비 수: {}", page, currentPageDevices.size(), devicePage.getTotalElements());
         
         int startPage = ((page - 1) / 10) * 10 + 1;
         int endPage = Math.min(startPage + 9, totalPages);
@@ -144,6 +112,9 @@ public class DeviceController {
         model.addAttribute("startPage", startPage);
         model.addAttribute("endPage", endPage);
         model.addAttribute("totalPages", totalPages);
+        // 다음 페이지 링크에 붙이는 커서 (현재 페이지 마지막 장비 ID)
+        model.addAttribute("nextCursor", currentPageDevices.isEmpty() ? null
+                : currentPageDevices.get(currentPageDevices.size() - 1).getDeviceId());
         return "device/list";
     }
 
@@ -202,9 +173,11 @@ public class DeviceController {
         Long num = ("custom".equals(manageNum)) ? Long.valueOf(manageNumCustom) : Long.valueOf(manageNum);
         Manage manage = manageService.findOrCreate(device.getSchool(), cate, year, num);
         device.setManage(manage);
-        // Uid 처리
+        // Uid 처리 (카테고리를 지정하지 않으면 장비 타입/관리 카테고리로 분류 규칙에 따라 결정)
         if (uidCate != null && !uidCate.trim().isEmpty()) {
             deviceService.setDeviceUid(device, uidCate);
+        } else {
+            deviceService.setDeviceUidByRule(device, cate);
         }
         deviceService.saveDevice(device);
         return "redirect:/device/list";
@@ -273,6 +246,12 @@ public class DeviceController {
             } else {
                 deviceService.setDeviceUid(device, uidCate);
             }
+        } else {
+            // 수정 폼에는 고유번호가 없으므로 기존 고유번호를 유지하고, 분류 결과 카테고리가 바뀐 경우에만 새로 발급
+            if (device.getUid() == null && device.getDeviceId() != null) {
+                deviceService.getDeviceById(device.getDeviceId()).ifPresent(existing -> device.setUid(existing.getUid()));
+            }
+            deviceService.setDeviceUidByRule(device, cate);
         }
         deviceService.updateDevice(device);
         return "redirect:/device/list";
@@ -290,60 +269,155 @@ public class DeviceController {
             @RequestParam(required = false) Long schoolId,
             @RequestParam(required = false) String type,
             @RequestParam(required = false) Long classroomId,
+            HttpServletRequest request,
             HttpServletResponse response) throws IOException {
-        List<Device> devices;
-        
-        if (schoolId != null && type != null && !type.isEmpty() && classroomId != null) {
-            devices = deviceService.findBySchoolAndTypeAndClassroom(schoolId, type, classroomId);
-        } else if (schoolId != null && type != null && !type.isEmpty()) {
-            devices = deviceService.findBySchoolAndType(schoolId, type);
-        } else if (schoolId != null && classroomId != null) {
-            devices = deviceService.findBySchoolAndClassroom(schoolId, classroomId);
-        } else if (schoolId != null) {
-            devices = deviceService.findBySchool(schoolId);
-        } else if (type != null && !type.isEmpty()) {
-            devices = deviceService.findByType(type);
-        } else if (classroomId != null) {
-            devices = deviceService.findByClassroom(classroomId);
-        } else {
-            devices = deviceService.findAll();
+        String typeFilter = type != null && !type.isEmpty() ? type : null;
+
+        // 데이터가 바뀌지 않았으면 브라우저에 있는 파일을 그대로 사용 (304)
+        DeviceExportCache.ExportKey key = deviceExportCache.keyFor(schoolId, typeFilter, classroomId);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(key.getEtag(), key.getLastModified())) {
+            return;
         }
-        
-        // 교실, 세트 타입, 담당자 순으로 정렬
-        devices.sort((d1, d2) -> {
-            // 1. 교실 기준 정렬
-            String classroom1 = d1.getClassroom() != null && d1.getClassroom().getRoomName() != null ? 
-                                d1.getClassroom().getRoomName() : "미지정 교실";
-            String classroom2 = d2.getClassroom() != null && d2.getClassroom().getRoomName() != null ? 
-                                d2.getClassroom().getRoomName() : "미지정 교실";
-            int classroomCompare = classroom1.compareTo(classroom2);
-            if (classroomCompare != 0) return classroomCompare;
-            
-            // 2. 세트 타입 기준 정렬 (있는 경우)
-            String setType1 = d1.getSetType() != null && !d1.getSetType().trim().isEmpty() ? d1.getSetType() : null;
-            String setType2 = d2.getSetType() != null && !d2.getSetType().trim().isEmpty() ? d2.getSetType() : null;
-            
-            // 세트 타입이 있는 경우 우선 정렬
-            if (setType1 != null && setType2 != null) {
-                return setType1.compareTo(setType2);
-            } else if (setType1 != null) {
-                return -1; // d1이 세트 타입이 있으면 앞으로
-            } else if (setType2 != null) {
-                return 1;  // d2가 세트 타입이 있으면 앞으로
-            }
-            
-            // 3. 담당자 기준 정렬
-            String operator1 = d1.getOperator() != null && d1.getOperator().getName() != null ? 
-                               d1.getOperator().getName() : "미지정 담당자";
-            String operator2 = d2.getOperator() != null && d2.getOperator().getName() != null ? 
-                               d2.getOperator().getName() : "미지정 담당자";
-            return operator1.compareTo(operator2);
-        });
-        
+
+        // 조건에 맞는 장비를 DB 에서 교실, 세트 타입, 담당자 순으로 읽으면서 바로 출력 (같은 버전은 캐시된 파일 사용)
+        DeviceExportCache.CachedExport export = deviceExportCache.get(key,
+                out -> deviceService.exportToExcel(schoolId, typeFilter, classroomId, out, ExportProgress.NONE));
+
         response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
         response.setHeader("Content-Disposition", "attachment; filename=devices.xlsx");
-        
-        deviceService.exportToExcel(devices, response.getOutputStream());
+        response.setContentLengthLong(export.getSize());
+        Files.copy(export.getFile(), response.getOutputStream());
+    }
+
+    /**
+     * 조건에 맞는 장비를 CSV 로 출력합니다. (/device/excel 과 같은 조건, 같은 순서)
+     * @param gzip true 면 gzip 으로 압축한 파일(.csv.gz)로 출력
+     */
+    @GetMapping("/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) Long schoolId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long classroomId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportRows(DeviceExportRowWriter.Format.CSV, schoolId, type, classroomId, gzip);
+    }
+
+    /**
+     * 조건에 맞는 장비를 NDJSON(한 줄에 장비 하나)으로 출력합니다. (/device/excel 과 같은 조건, 같은 순서)
+     * @param gzip true 면 gzip 으로 압축한 파일(.ndjson.gz)로 출력
+     */
+    @GetMapping("/export.ndjson")
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestParam(required = false) Long schoolId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long classroomId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return exportRows(DeviceExportRowWriter.Format.NDJSON, schoolId, type, classroomId, gzip);
+    }
+
+    // DB 에서 읽는 대로 응답에 바로 쓰므로 첫 행부터 바로 전송이 시작됨
+    private ResponseEntity<StreamingResponseBody> exportRows(DeviceExportRowWriter.Format format, Long schoolId,
+                                                             String type, Long classroomId, boolean gzip) {
+        String typeFilter = type != null && !type.isEmpty() ? type : null;
+        StreamingResponseBody body = out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 16 * 1024) : out;
+            try (DeviceExportRowWriter writer = DeviceExportRowWriter.create(format, target)) {
+                deviceService.exportRows(schoolId, typeFilter, classroomId, writer, ExportProgress.NONE);
+            }
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+
+        String filename = "devices." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header("Content-Disposition", "attachment; filename=" + filename)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    /**
+     * 모든 학교의 장비를 학교별 시트를 가진 워크북 하나 또는 학교별 워크북을 묶은 ZIP 파일로 출력합니다.
+     * @param format xlsx 또는 zip (없으면 학교 수에 따라 자동 선택)
+     */
+    @GetMapping("/excel/all")
+    public void downloadAllSchoolsExcel(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        DeviceBulkExportService.ExportFormat exportFormat;
+        try {
+            exportFormat = deviceBulkExportService.resolveFormat(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        boolean zip = exportFormat == DeviceBulkExportService.ExportFormat.ZIP;
+
+        DeviceExportCache.ExportKey key = deviceExportCache.keyForAllSchools(zip ? "zip" : "xlsx");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(key.getEtag(), key.getLastModified())) {
+            return;
+        }
+
+        DeviceExportCache.CachedExport export = deviceExportCache.get(key,
+                out -> deviceBulkExportService.export(exportFormat, out, ExportProgress.NONE));
+
+        response.setContentType(zip ? "application/zip" : "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader("Content-Disposition", "attachment; filename=" + (zip ? "devices_all.zip" : "devices_all.xlsx"));
+        response.setContentLengthLong(export.getSize());
+        Files.copy(export.getFile(), response.getOutputStream());
+    }
+
+    // 출력 작업 등록 (API) - 작업 ID를 바로 반환하고, 완료되면 downloadUrl 로 파일을 내려받음
+    @PostMapping("/export/jobs")
+    @ResponseBody
+    public ResponseEntity<?> submitExportJob(
+            @RequestParam(defaultValue = "XLSX") ExportJob.Format format,
+            @RequestParam(required = false) Long schoolId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long classroomId) {
+        String typeFilter = type != null && !type.isEmpty() ? type : null;
+        try {
+            ExportJob job = deviceExportJobService.submit(format, schoolId, typeFilter, classroomId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 출력 작업 진행 상황 조회
+    @GetMapping("/export/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ExportJob> getExportJob(@PathVariable String jobId) {
+        return deviceExportJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 완료된 출력 작업의 파일 다운로드 (보관 시간이 지나면 404, 아직 작성 중이면 409)
+    @GetMapping("/export/jobs/{jobId}/file")
+    public void downloadExportJobFile(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+        ExportJob job = deviceExportJobService.getJob(jobId).orElse(null);
+        if (job == null) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "출력 작업을 찾을 수 없습니다.");
+            return;
+        }
+        Path file = deviceExportJobService.getFile(job).orElse(null);
+        if (file == null) {
+            response.sendError(job.isFinished() ? HttpStatus.NOT_FOUND.value() : HttpStatus.CONFLICT.value(),
+                    job.isFinished() ? "출력 파일이 없습니다: " + job.getMessage() : "출력 파일을 작성 중입니다.");
+            return;
+        }
+
+        response.setContentType(job.getFormat().getContentType());
+        response.setHeader("Content-Disposition", "attachment; filename=" + job.getFormat().getFilename());
+        response.setContentLengthLong(job.getFileSize());
+        Files.copy(file, response.getOutputStream());
     }
 
     @GetMapping("/map")
@@ -359,10 +433,24 @@ public class DeviceController {
         return classroomService.findBySchoolId(schoolId);
     }
 
+    /**
+     * 배치도 화면용 장비 목록
+     * @param fields 응답에 포함할 항목 (쉼표로 구분, 없으면 전체) 예) classroomId,type,manageNo
+     */
     @GetMapping("/api/devices/{schoolId}")
     @ResponseBody
-    public List<Device> getDevicesBySchool(@PathVariable Long schoolId) {
-        return deviceService.findBySchool(schoolId);
+    public ResponseEntity<?> getDevicesBySchool(@PathVariable Long schoolId,
+                                                @RequestParam(required = false) String fields) {
+        Set<String> selected;
+        try {
+            selected = DeviceMapItem.parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        MappingJacksonValue body = new MappingJacksonValue(deviceService.getMapItems(schoolId));
+        body.setFilters(new SimpleFilterProvider().addFilter(DeviceMapItem.FILTER,
+                selected != null ? SimpleBeanPropertyFilter.filterOutAllExcept(selected) : SimpleBeanPropertyFilter.serializeAll()));
+        return ResponseEntity.ok(body);
     }
 
     @PostMapping("/api/save-layout")
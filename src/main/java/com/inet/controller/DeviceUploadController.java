@@ -1,25 +1,44 @@
 package com.inet.controller;
 
-import com.inet.service.DeviceService;
+import com.inet.service.BulkImportJob;
+import com.inet.service.DeviceBulkImportService;
+import com.inet.service.DeviceImportJobService;
+import com.inet.service.DeviceImportValidator;
+import com.inet.service.ImportJob;
+import com.inet.service.ImportValidationReport;
 import com.inet.service.SchoolService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
 @Controller
 @RequestMapping("/device/upload")
 public class DeviceUploadController {
     private final SchoolService schoolService;
-    private final DeviceService deviceService;
+    private final DeviceImportJobService deviceImportJobService;
+    private final DeviceImportValidator deviceImportValidator;
+    private final DeviceBulkImportService deviceBulkImportService;
 
-    public DeviceUploadController(SchoolService schoolService, DeviceService deviceService) {
+    public DeviceUploadController(SchoolService schoolService, DeviceImportJobService deviceImportJobService,
+                                  DeviceImportValidator deviceImportValidator, DeviceBulkImportService deviceBulkImportService) {
         this.schoolService = schoolService;
-        this.deviceService = deviceService;
+        this.deviceImportJobService = deviceImportJobService;
+        this.deviceImportValidator = deviceImportValidator;
+        this.deviceBulkImportService = deviceBulkImportService;
     }
 
     @GetMapping
@@ -31,15 +50,98 @@ public class DeviceUploadController {
     @PostMapping
     public String handleFileUpload(@RequestParam("file") MultipartFile file,
                                    @RequestParam("schoolId") Long schoolId,
+                                   @RequestParam(value = "mode", defaultValue = "APPEND") ImportJob.Mode mode,
                                    RedirectAttributes redirectAttributes) {
         try {
-            deviceService.saveDevicesFromExcel(file, schoolId);
-            redirectAttributes.addFlashAttribute("message", "업로드 성공!");
-        } catch (IllegalArgumentException e) {
+            // 업로드는 백그라운드 작업으로 처리하고 진행 상황은 작업 ID로 조회
+            ImportJob job = deviceImportJobService.submit(file, schoolId, mode);
+            redirectAttributes.addFlashAttribute("message", "업로드 작업이 등록되었습니다. 처리 상황을 아래에서 확인하세요.");
+            redirectAttributes.addFlashAttribute("jobId", job.getJobId());
+        } catch (IllegalArgumentException | RejectedExecutionException e) {
             redirectAttributes.addFlashAttribute("error", e.getMessage());
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "업로드 중 오류가 발생했습니다: " + e.getMessage());
         }
         return "redirect:/device/upload";
     }
-} 
\ No newline at end of file
+
+    // 업로드 파일 검증 (dry-run) - 저장하지 않고 모든 행의 오류/경고를 반환
+    @PostMapping("/validate")
+    @ResponseBody
+    public ResponseEntity<?> validateFile(@RequestParam("file") MultipartFile file,
+                                          @RequestParam("schoolId") Long schoolId) {
+        try {
+            ImportValidationReport report = deviceImportValidator.validate(file, schoolId);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "파일 검증 중 오류가 발생했습니다: " + e.getMessage()));
+        }
+    }
+
+    // 여러 학교 일괄 업로드 - ZIP(파일명 = 학교명) 또는 학교별 시트를 가진 워크북(시트명 = 학교명)
+    // 학교별 등록은 업로드 작업으로 처리하고 작업 ID를 바로 반환
+    @PostMapping("/bulk")
+    @ResponseBody
+    public ResponseEntity<?> handleBulkUpload(@RequestParam("file") MultipartFile file) {
+        try {
+            BulkImportJob job = deviceBulkImportService.submitBulk(file);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "일괄 업로드 중 오류가 발생했습니다: " + e.getMessage()));
+        }
+    }
+
+    // 일괄 업로드 작업 진행 상황 조회 (모든 학교가 끝나면 report 에 학교별 결과가 들어 있음)
+    @GetMapping("/bulk/{jobId}")
+    @ResponseBody
+    public ResponseEntity<BulkImportJob> getBulkJob(@PathVariable String jobId) {
+        return deviceImportJobService.getBulkJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 업로드 작업 등록 (API) - 작업 ID를 바로 반환
+    @PostMapping("/jobs")
+    @ResponseBody
+    public ResponseEntity<?> submitJob(@RequestParam("file") MultipartFile file,
+                                       @RequestParam("schoolId") Long schoolId,
+                                       @RequestParam(value = "mode", defaultValue = "APPEND") ImportJob.Mode mode) {
+        try {
+            ImportJob job = deviceImportJobService.submit(file, schoolId, mode);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "업로드 중 오류가 발생했습니다: " + e.getMessage()));
+        }
+    }
+
+    // 업로드 작업 진행 상황 조회
+    @GetMapping("/jobs/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ImportJob> getJob(@PathVariable String jobId) {
+        return deviceImportJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 업로드 작업 진행 상황 (SSE)
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        return deviceImportJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(deviceImportJobService.subscribe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
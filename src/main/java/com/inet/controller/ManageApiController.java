@@ -1,6 +1,7 @@
 package com.inet.controller;
 
 import com.inet.repository.ManageRepository;
+import com.inet.service.ManageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -10,15 +11,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ManageApiController {
     private final ManageRepository manageRepository;
+    private final ManageService manageService;
 
     @GetMapping("/cates")
     public List<String> getAllCates() {
-        return manageRepository.findDistinctManageCate();
+        return manageService.getAllManageCates();
     }
 
     @GetMapping("/years")
     public List<Integer> getAllYears() {
-        return manageRepository.findDistinctYear();
+        return manageService.getAllYears();
     }
 
     @GetMapping("/next-num")
@@ -0,0 +1,78 @@
+package com.inet.controller;
+
+import com.inet.entity.School;
+import com.inet.entity.UidCategoryRule;
+import com.inet.service.DeviceService;
+import com.inet.service.SchoolService;
+import com.inet.service.UidCategoryClassifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UID 카테고리 분류 규칙 관리 API
+ * 규칙을 바꾸면 분류기에 바로 반영되며, 기존 장비에는 재분류를 실행해야 반영됩니다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/uid-rules")
+@RequiredArgsConstructor
+public class UidCategoryRuleController {
+
+    private final UidCategoryClassifier uidCategoryClassifier;
+    private final DeviceService deviceService;
+    private final SchoolService schoolService;
+
+    @GetMapping
+    public List<UidCategoryRule> getRules() {
+        return uidCategoryClassifier.getRules();
+    }
+
+    @PostMapping
+    public ResponseEntity<?> saveRule(@RequestBody UidCategoryRule rule) {
+        try {
+            return ResponseEntity.ok(uidCategoryClassifier.saveRule(rule));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<?> deleteRule(@PathVariable Long ruleId) {
+        uidCategoryClassifier.deleteRule(ruleId);
+        return ResponseEntity.ok().build();
+    }
+
+    // DB 에서 직접 규칙을 고친 경우 다시 읽기
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        return Map.of("ruleCount", uidCategoryClassifier.reload().getRuleCount());
+    }
+
+    /**
+     * 장비의 UID 카테고리를 현재 규칙으로 다시 정합니다.
+     * @param schoolId 학교 ID (없으면 모든 학교, 학교마다 별도 트랜잭션)
+     * @return 학교명별 변경된 장비 수
+     */
+    @PostMapping("/reclassify")
+    public ResponseEntity<?> reclassify(@RequestParam(required = false) Long schoolId) {
+        try {
+            Map<String, Integer> changed = new LinkedHashMap<>();
+            if (schoolId != null) {
+                changed.put(String.valueOf(schoolId), deviceService.reclassifyUids(schoolId));
+            } else {
+                for (School school : schoolService.getAllSchools()) {
+                    changed.put(school.getSchoolName(), deviceService.reclassifyUids(school.getSchoolId()));
+                }
+            }
+            return ResponseEntity.ok(changed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -13,13 +14,16 @@ import com.inet.config.Views;
 
 @Entity
 @Table(name = "classroom")
+@EntityListeners(SchoolDataChangeListener.class)
 @Getter
 @Setter
 @ToString(exclude = {"devices"})
 @EqualsAndHashCode(exclude = {"devices"})
 public class Classroom {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "classroom_id_gen")
+    @TableGenerator(name = "classroom_id_gen", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "classroom", allocationSize = 50)
     @Column(name = "classroom_id")
     @JsonView(Views.Summary.class)
     private Long classroomId;
@@ -1,13 +1,17 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Column;
+import jakarta.persistence.FetchType;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -17,15 +21,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
+// 조회 조건별 인덱스는 db/migration 의 마이그레이션으로 관리
 @Table(name = "device")
+@EntityListeners(SchoolDataChangeListener.class)
 @Getter
 @Setter
-@ToString(exclude = {"classroom"})
-@EqualsAndHashCode(exclude = {"classroom"})
+// 연관 엔티티는 모두 지연 로딩 - 화면/출력마다 필요한 연관만 조회 쿼리에서 함께 읽음 (DeviceRepository 참고)
+// toString/equals 에서 연관을 건드리면 지연 로딩 쿼리가 나가므로 제외
+@ToString(exclude = {"classroom", "school", "operator", "manage", "uid"})
+@EqualsAndHashCode(exclude = {"classroom", "school", "operator", "manage", "uid"})
 public class Device {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "device_id_gen")
+    @TableGenerator(name = "device_id_gen", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "device", allocationSize = 50)
     @Column(name = "device_id")
     private Long deviceId;
     
@@ -42,7 +52,7 @@ public class Device {
     @Column(name = "ip_address")
     private String ipAddress;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "classroom_id")
     @JsonBackReference
     private Classroom classroom;
@@ -57,19 +67,19 @@ public class Device {
     @Column(columnDefinition = "TEXT")
     private String note;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "school_id")
     private School school;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "operator_id")
     private Operator operator;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manage_id")
     private Manage manage;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uid_id")
     private Uid uid;
 } 
\ No newline at end of file
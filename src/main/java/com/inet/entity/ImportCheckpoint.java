@@ -0,0 +1,54 @@
+package com.inet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 나눠서 커밋하는 엑셀 업로드의 진행 지점
+ * (학교, 파일 해시)별로 마지막으로 커밋된 행을 보관하여, 실패한 업로드를 같은 파일로 다시 올리면 그 다음 행부터 이어서 처리합니다.
+ * 업로드가 끝까지 성공하면 삭제됩니다.
+ */
+@Entity
+@Table(name = "import_checkpoint",
+        uniqueConstraints = @UniqueConstraint(name = "uk_import_checkpoint_file", columnNames = {"school_id", "file_hash"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "checkpoint_id")
+    private Long checkpointId;
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    // 업로드 파일 내용의 SHA-256 (16진수)
+    @Column(name = "file_hash", nullable = false, length = 64)
+    private String fileHash;
+
+    @Column(name = "filename")
+    private String filename;
+
+    // 마지막으로 커밋된 데이터 행 순번 (헤더 제외)
+    @Column(name = "last_committed_row", nullable = false)
+    private Integer lastCommittedRow;
+
+    // 파일의 전체 데이터 행 수
+    @Column(name = "total_rows", nullable = false)
+    private Integer totalRows;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,8 +1,11 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
@@ -10,14 +13,23 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 @Entity
+// 조회 조건별 인덱스는 db/migration 의 마이그레이션으로 관리
 @Table(name = "manage")
+@EntityListeners(SchoolDataChangeListener.class)
 @Data
+// 학교는 지연 로딩 - toString/equals 에서 건드리면 지연 로딩 쿼리가 나가므로 제외
+@ToString(exclude = {"school"})
+@EqualsAndHashCode(exclude = {"school"})
 public class Manage {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "manage_id_gen")
+    @TableGenerator(name = "manage_id_gen", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "manage", allocationSize = 50)
     @Column(name = "manage_id")
     private Long manageId;
 
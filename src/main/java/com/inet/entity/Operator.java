@@ -1,8 +1,11 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
@@ -15,13 +18,16 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "operator")
+@EntityListeners(SchoolDataChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Operator {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "operator_id_gen")
+    @TableGenerator(name = "operator_id_gen", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "operator", allocationSize = 50)
     @Column(name = "operator_id")
     private Long operatorId;
     
@@ -1,6 +1,8 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -15,6 +17,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "school")
+@EntityListeners(SchoolDataChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,28 +1,40 @@
 package com.inet.entity;
 
+import com.inet.service.SchoolDataChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
+import jakarta.persistence.TableGenerator;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.FetchType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "uid")
+@EntityListeners(SchoolDataChangeListener.class)
 @Data
+// 학교는 지연 로딩 - toString/equals 에서 건드리면 지연 로딩 쿼리가 나가므로 제외
+@ToString(exclude = {"school"})
+@EqualsAndHashCode(exclude = {"school"})
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Uid {
     
     @Id //고유번호 엔티티
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "uid_id_gen")
+    @TableGenerator(name = "uid_id_gen", table = "id_generator", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "uid", allocationSize = 50)
     @Column(name = "uid_id")
     private Long uidId;
     
@@ -35,7 +47,7 @@ public class Uid {
     @Column(name = "mfg_year")
     private String mfgYear;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "school_id")
     private School school;
     
@@ -0,0 +1,47 @@
+package com.inet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 장비 타입(과 관리 카테고리)으로 고유번호(Uid) 카테고리를 정하는 규칙
+ * 관리 카테고리가 없는 규칙은 그 장비 타입의 기본 규칙이며, 관리 카테고리가 있는 규칙이 우선합니다.
+ * (예: 데스크톱 → DW, 데스크톱 + 교육 → DE)
+ */
+@Entity
+@Table(name = "uid_category_rule",
+        uniqueConstraints = @UniqueConstraint(name = "uk_uid_category_rule", columnNames = {"device_type", "manage_cate"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UidCategoryRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "rule_id")
+    private Long ruleId;
+
+    @Column(name = "device_type", nullable = false)
+    private String deviceType;
+
+    // 관리 카테고리 (null 이면 장비 타입의 기본 규칙)
+    @Column(name = "manage_cate")
+    private String manageCate;
+
+    @Column(name = "uid_cate", nullable = false)
+    private String uidCate;
+
+    public UidCategoryRule(String deviceType, String manageCate, String uidCate) {
+        this.deviceType = deviceType;
+        this.manageCate = manageCate;
+        this.uidCate = uidCate;
+    }
+}
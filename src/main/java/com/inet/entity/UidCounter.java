@@ -0,0 +1,42 @@
+package com.inet.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 고유번호(Uid) 번호 카운터
+ * (학교, 카테고리, 제조년)별로 다음에 발급할 ID 번호를 보관하며, 행 잠금으로 동시 발급을 직렬화합니다.
+ */
+@Entity
+@Table(name = "uid_counter",
+        uniqueConstraints = @UniqueConstraint(name = "uk_uid_counter_key", columnNames = {"school_id", "cate", "mfg_year"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class UidCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "counter_id")
+    private Long counterId;
+
+    @Column(name = "school_id", nullable = false)
+    private Long schoolId;
+
+    @Column(name = "cate", nullable = false)
+    private String cate;
+
+    @Column(name = "mfg_year", nullable = false)
+    private String mfgYear;
+
+    @Column(name = "next_number", nullable = false)
+    private Long nextNumber;
+}
@@ -0,0 +1,32 @@
+package com.inet.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 장비 조회 조건 (null 또는 빈 값인 조건은 적용하지 않음)
+ * 목록 화면에서는 요청 파라미터가 이름이 같은 필드에 바로 바인딩됩니다.
+ */
+@Getter
+@Setter
+public class DeviceFilter {
+
+    private Long schoolId;
+    private String type;
+    private Long classroomId;
+    private String manufacturer;
+    // 도입연도 범위 (양 끝 포함)
+    private Integer purchaseYearFrom;
+    private Integer purchaseYearTo;
+    private Boolean unused;
+    private Long operatorId;
+    private String manageCate;
+
+    public static DeviceFilter of(Long schoolId, String type, Long classroomId) {
+        DeviceFilter filter = new DeviceFilter();
+        filter.setSchoolId(schoolId);
+        filter.setType(type);
+        filter.setClassroomId(classroomId);
+        return filter;
+    }
+}
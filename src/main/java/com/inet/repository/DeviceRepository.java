@@ -2,43 +2,95 @@ package com.inet.repository;
 
 import com.inet.entity.Device;
 import com.inet.entity.School;
-import com.inet.entity.Classroom;
 import com.inet.entity.Uid;
+import com.inet.service.DeviceExportRow;
+import com.inet.service.DeviceMapItem;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, JpaSpecificationExecutor<Device>,
+        DeviceRepositoryCustom {
     List<Device> findBySchool(School school);
 
-    // 페이징 + 학교 + 타입 조건 검색
-    Page<Device> findBySchoolAndType(School school, String type, Pageable pageable);
-    Page<Device> findBySchool(School school, Pageable pageable);
-    Page<Device> findByType(String type, Pageable pageable);
-    Page<Device> findAll(Pageable pageable);
-
-    // 교실 관련 검색
-    Page<Device> findBySchoolAndTypeAndClassroom(School school, String type, Classroom classroom, Pageable pageable);
-    Page<Device> findBySchoolAndClassroom(School school, Classroom classroom, Pageable pageable);
-    Page<Device> findByClassroom(Classroom classroom, Pageable pageable);
-
-    // 교실 관련 검색 (페이징 없음)
-    List<Device> findBySchoolAndTypeAndClassroom(School school, String type, Classroom classroom);
-    List<Device> findBySchoolAndClassroom(School school, Classroom classroom);
-    List<Device> findByClassroom(Classroom classroom);
-
+    // 학교/타입/교실 등 조건 조합 검색은 JpaSpecificationExecutor + DeviceSpecifications.matching(DeviceFilter) 사용
     // type 목록 조회
     @Query("SELECT DISTINCT d.type FROM Device d")
     List<String> findDistinctTypes();
 
+    // 학교별 관리번호 목록 등 - 연관 엔티티를 한 번에 함께 조회
+    @EntityGraph(attributePaths = {"school", "classroom", "operator", "manage", "manage.school", "uid", "uid.school"})
     List<Device> findBySchoolSchoolId(Long schoolId);
+
+    // 재업로드 대조용 - 학교의 장비를 연관 엔티티와 함께 한 번에 조회
+    @Query("SELECT d FROM Device d JOIN FETCH d.school LEFT JOIN FETCH d.uid LEFT JOIN FETCH d.manage "
+            + "LEFT JOIN FETCH d.operator LEFT JOIN FETCH d.classroom WHERE d.school = :school")
+    List<Device> findBySchoolWithAssociations(@Param("school") School school);
+
+    // 엑셀 출력용 - 조건(null 이면 전체)에 맞는 장비를 연관 엔티티와 함께 출력 순서대로 조금씩 읽어 오는 스트림
+    // 정렬: 설치장소 → 세트분류가 있는 장비 먼저(세트분류순) → 세트분류가 없으면 취급자순
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT d FROM Device d LEFT JOIN FETCH d.school s LEFT JOIN FETCH d.classroom c "
+            + "LEFT JOIN FETCH d.operator o LEFT JOIN FETCH d.manage LEFT JOIN FETCH d.uid "
+            + "WHERE (:schoolId IS NULL OR s.schoolId = :schoolId) "
+            + "AND (:type IS NULL OR d.type = :type) "
+            + "AND (:classroomId IS NULL OR c.classroomId = :classroomId) "
+            + "ORDER BY COALESCE(c.roomName, '미지정 교실'), "
+            + "CASE WHEN d.setType IS NULL OR TRIM(d.setType) = '' THEN 1 ELSE 0 END, d.setType, "
+            + "CASE WHEN d.setType IS NULL OR TRIM(d.setType) = '' THEN COALESCE(o.name, '미지정 담당자') ELSE '' END, "
+            + "d.deviceId")
+    Stream<Device> streamForExport(@Param("schoolId") Long schoolId,
+                                   @Param("type") String type,
+                                   @Param("classroomId") Long classroomId);
+
+    // CSV/NDJSON 출력용 - 엔티티 대신 펼친 값으로 조회 (정렬은 엑셀 출력과 같음)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.inet.service.DeviceExportRow(d.deviceId, s.schoolId, s.schoolName, "
+            + "u.cate, us.schoolId, u.mfgYear, u.idNumber, m.manageCate, m.year, m.manageNum, d.type, o.position, o.name, "
+            + "d.manufacturer, d.modelName, d.purchaseDate, d.ipAddress, c.roomName, d.purpose, d.setType, d.unused, d.note) "
+            + "FROM Device d LEFT JOIN d.school s LEFT JOIN d.classroom c LEFT JOIN d.operator o "
+            + "LEFT JOIN d.manage m LEFT JOIN d.uid u LEFT JOIN u.school us "
+            + "WHERE (:schoolId IS NULL OR s.schoolId = :schoolId) "
+            + "AND (:type IS NULL OR d.type = :type) "
+            + "AND (:classroomId IS NULL OR c.classroomId = :classroomId) "
+            + "ORDER BY COALESCE(c.roomName, '미지정 교실'), "
+            + "CASE WHEN d.setType IS NULL OR TRIM(d.setType) = '' THEN 1 ELSE 0 END, d.setType, "
+            + "CASE WHEN d.setType IS NULL OR TRIM(d.setType) = '' THEN COALESCE(o.name, '미지정 담당자') ELSE '' END, "
+            + "d.deviceId")
+    Stream<DeviceExportRow> streamExportRows(@Param("schoolId") Long schoolId,
+                                             @Param("type") String type,
+                                             @Param("classroomId") Long classroomId);
+
+    // 배치도 API 용 - 엔티티 대신 배치도에 필요한 값만 펼쳐서 조회
+    @Query("SELECT new com.inet.service.DeviceMapItem(d.deviceId, c.classroomId, c.roomName, d.type, "
+            + "u.cate, us.schoolId, u.mfgYear, u.idNumber, m.manageCate, m.year, m.manageNum, "
+            + "o.position, o.name, d.setType, d.unused) "
+            + "FROM Device d LEFT JOIN d.classroom c LEFT JOIN d.operator o "
+            + "LEFT JOIN d.manage m LEFT JOIN d.uid u LEFT JOIN u.school us "
+            + "WHERE d.school.schoolId = :schoolId ORDER BY d.deviceId")
+    List<DeviceMapItem> findMapItemsBySchoolId(@Param("schoolId") Long schoolId);
+
+    // 목록 화면에 표시할 장비를 연관 엔티티와 함께 조회 (순서는 호출한 쪽에서 맞춤)
+    @Query("SELECT d FROM Device d LEFT JOIN FETCH d.school LEFT JOIN FETCH d.classroom "
+            + "LEFT JOIN FETCH d.operator LEFT JOIN FETCH d.manage LEFT JOIN FETCH d.uid WHERE d.deviceId IN :ids")
+    List<Device> findWithAssociationsByIdIn(@Param("ids") List<Long> ids);
+
     List<Device> findByType(String type);
     List<Device> findBySchoolSchoolIdAndType(Long schoolId, String type);
 
@@ -0,0 +1,22 @@
+package com.inet.repository;
+
+import com.inet.entity.Device;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * 장비 목록 화면 페이징 조회 (Criteria 로 조건과 정렬 키를 조합)
+ */
+public interface DeviceRepositoryCustom {
+
+    /**
+     * 목록 화면 한 페이지의 장비 ID 를 목록 순서대로 조회합니다.
+     * 정렬: 설치장소 → 세트분류가 있는 장비 먼저 → 세트분류 → 취급자 → ID
+     * @param spec 조회 조건
+     * @param afterDeviceId 이전 페이지의 마지막 장비 ID (주면 그 장비의 정렬 키 다음부터 조회, 찾을 수 없으면 offset 사용)
+     * @param offset 건너뛸 장비 수 (afterDeviceId 로 조회하면 무시)
+     * @param limit 페이지 크기
+     */
+    List<Long> findListPageIds(Specification<Device> spec, Long afterDeviceId, long offset, int limit);
+}
@@ -0,0 +1,116 @@
+package com.inet.repository;
+
+import com.inet.entity.Classroom;
+import com.inet.entity.Device;
+import com.inet.entity.Operator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 장비 목록 화면 페이징 조회 구현
+ * 정렬과 페이징을 DB 에서 처리하고 장비 ID 만 읽어 오므로, 앞 페이지의 장비는 엔티티로 만들지 않습니다.
+ */
+public class DeviceRepositoryImpl implements DeviceRepositoryCustom {
+
+    private static final String NO_ROOM = "미지정 교실";
+    private static final String NO_OPERATOR = "미지정 담당자";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> findListPageIds(Specification<Device> spec, Long afterDeviceId, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Device> device = query.from(Device.class);
+        SortKeys keys = new SortKeys(cb, device);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate condition = spec.toPredicate(device, query, cb);
+        if (condition != null) {
+            predicates.add(condition);
+        }
+        Object[] after = afterDeviceId != null ? findSortKey(afterDeviceId) : null;
+        if (after != null) {
+            predicates.add(keys.after(after, afterDeviceId));
+        }
+
+        query.select(device.get("deviceId"))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(keys.orders());
+        return entityManager.createQuery(query)
+                .setFirstResult(after != null ? 0 : (int) offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // 장비 하나의 정렬 키 (없는 장비면 null)
+    private Object[] findSortKey(Long deviceId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Device> device = query.from(Device.class);
+        SortKeys keys = new SortKeys(cb, device);
+        query.multiselect(keys.room, keys.noSetType, keys.setType, keys.operator)
+                .where(cb.equal(device.get("deviceId"), deviceId));
+        List<Tuple> result = entityManager.createQuery(query).getResultList();
+        return result.isEmpty() ? null : result.get(0).toArray();
+    }
+
+    /**
+     * 목록 정렬 키 (설치장소, 세트분류 없음 여부, 세트분류, 취급자)
+     */
+    private static final class SortKeys {
+        private final CriteriaBuilder cb;
+        private final Root<Device> device;
+        private final Expression<String> room;
+        private final Expression<Integer> noSetType;
+        private final Expression<String> setType;
+        private final Expression<String> operator;
+
+        SortKeys(CriteriaBuilder cb, Root<Device> device) {
+            this.cb = cb;
+            this.device = device;
+            Join<Device, Classroom> classroom = device.join("classroom", JoinType.LEFT);
+            Join<Device, Operator> operatorJoin = device.join("operator", JoinType.LEFT);
+            Expression<String> rawSetType = device.get("setType");
+            Predicate blankSetType = cb.or(cb.isNull(rawSetType), cb.equal(cb.trim(rawSetType), ""));
+
+            this.room = cb.coalesce(classroom.<String>get("roomName"), cb.literal(NO_ROOM));
+            this.noSetType = cb.<Integer>selectCase().when(blankSetType, 1).otherwise(0);
+            this.setType = cb.<String>selectCase().when(blankSetType, "").otherwise(rawSetType);
+            this.operator = cb.coalesce(operatorJoin.<String>get("name"), cb.literal(NO_OPERATOR));
+        }
+
+        List<Order> orders() {
+            return List.of(cb.asc(room), cb.asc(noSetType), cb.asc(setType), cb.asc(operator),
+                    cb.asc(device.get("deviceId")));
+        }
+
+        // (room, noSetType, setType, operator, deviceId) > (이전 페이지 마지막 장비의 키)
+        Predicate after(Object[] key, Long deviceId) {
+            String lastRoom = (String) key[0];
+            Integer lastNoSetType = ((Number) key[1]).intValue();
+            String lastSetType = (String) key[2];
+            String lastOperator = (String) key[3];
+
+            Predicate tail = cb.greaterThan(device.get("deviceId"), deviceId);
+            tail = cb.or(cb.greaterThan(operator, lastOperator), cb.and(cb.equal(operator, lastOperator), tail));
+            tail = cb.or(cb.greaterThan(setType, lastSetType), cb.and(cb.equal(setType, lastSetType), tail));
+            tail = cb.or(cb.greaterThan(noSetType, lastNoSetType), cb.and(cb.equal(noSetType, lastNoSetType), tail));
+            return cb.or(cb.greaterThan(room, lastRoom), cb.and(cb.equal(room, lastRoom), tail));
+        }
+    }
+}
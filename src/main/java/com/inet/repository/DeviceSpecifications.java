@@ -0,0 +1,64 @@
+package com.inet.repository;
+
+import com.inet.entity.Device;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 장비 조회 조건을 JPA Specification 으로 변환
+ * 학교/교실/취급자는 연관 엔티티를 먼저 조회하지 않고 장비 테이블의 외래 키 값으로 바로 비교합니다.
+ */
+public final class DeviceSpecifications {
+
+    private DeviceSpecifications() {
+    }
+
+    /**
+     * 조건에 맞는 장비 (조건이 없으면 전체)
+     * @param filter 조회 조건
+     */
+    public static Specification<Device> matching(DeviceFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getSchoolId() != null) {
+                predicates.add(cb.equal(root.get("school").get("schoolId"), filter.getSchoolId()));
+            }
+            if (hasText(filter.getType())) {
+                predicates.add(cb.equal(root.get("type"), filter.getType().trim()));
+            }
+            if (filter.getClassroomId() != null) {
+                predicates.add(cb.equal(root.get("classroom").get("classroomId"), filter.getClassroomId()));
+            }
+            if (hasText(filter.getManufacturer())) {
+                predicates.add(cb.equal(root.get("manufacturer"), filter.getManufacturer().trim()));
+            }
+            // 연도 범위는 날짜 범위로 비교 (컬럼에 함수를 씌우지 않아야 인덱스 사용)
+            if (filter.getPurchaseYearFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("purchaseDate"),
+                        LocalDate.of(filter.getPurchaseYearFrom(), 1, 1)));
+            }
+            if (filter.getPurchaseYearTo() != null) {
+                predicates.add(cb.lessThan(root.get("purchaseDate"),
+                        LocalDate.of(filter.getPurchaseYearTo() + 1, 1, 1)));
+            }
+            if (filter.getUnused() != null) {
+                predicates.add(cb.equal(root.get("unused"), filter.getUnused()));
+            }
+            if (filter.getOperatorId() != null) {
+                predicates.add(cb.equal(root.get("operator").get("operatorId"), filter.getOperatorId()));
+            }
+            if (hasText(filter.getManageCate())) {
+                predicates.add(cb.equal(root.get("manage").get("manageCate"), filter.getManageCate().trim()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
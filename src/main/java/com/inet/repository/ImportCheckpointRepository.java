@@ -0,0 +1,13 @@
+package com.inet.repository;
+
+import com.inet.entity.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, Long> {
+
+    Optional<ImportCheckpoint> findBySchoolIdAndFileHash(Long schoolId, String fileHash);
+}
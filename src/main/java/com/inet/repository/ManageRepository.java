@@ -20,6 +20,9 @@ public interface ManageRepository extends JpaRepository<Manage, Long> {
 
     Optional<Manage> findByManageCateAndYearAndManageNum(String manageCate, Integer year, Long manageNum);
 
+    // 학교의 관리번호 + 학교가 지정되지 않은 관리번호 (엑셀 업로드 시 미리 읽어 둠)
+    List<Manage> findBySchoolOrSchoolIsNull(School school);
+
     @Query("SELECT DISTINCT m.manageCate FROM Manage m WHERE m.school = :school")
     List<String> findDistinctManageCateBySchool(@Param("school") School school);
 
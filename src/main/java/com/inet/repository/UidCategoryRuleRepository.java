@@ -0,0 +1,21 @@
+package com.inet.repository;
+
+import com.inet.entity.UidCategoryRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UidCategoryRuleRepository extends JpaRepository<UidCategoryRule, Long> {
+
+    // 장비 타입, 관리 카테고리 순으로 전체 규칙 조회
+    List<UidCategoryRule> findAllByOrderByDeviceTypeAscManageCateAsc();
+
+    // 같은 장비 타입/관리 카테고리의 규칙 (중복 확인용)
+    Optional<UidCategoryRule> findByDeviceTypeAndManageCate(String deviceType, String manageCate);
+
+    // 장비 타입의 기본 규칙 (관리 카테고리 없음 - NULL 은 유니크 제약으로 막히지 않으므로 따로 확인)
+    Optional<UidCategoryRule> findByDeviceTypeAndManageCateIsNull(String deviceType);
+}
@@ -0,0 +1,53 @@
+package com.inet.repository;
+
+import com.inet.entity.UidCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UidCounterRepository extends JpaRepository<UidCounter, Long> {
+
+    // 카운터의 다음 번호 조회 (잠그지 않음, 같은 트랜잭션에서 올린 값은 보임)
+    @Query("SELECT c.nextNumber FROM UidCounter c WHERE c.schoolId = :schoolId AND c.cate = :cate AND c.mfgYear = :mfgYear")
+    Optional<Long> findNextNumber(@Param("schoolId") Long schoolId,
+                                  @Param("cate") String cate,
+                                  @Param("mfgYear") String mfgYear);
+
+    // 카운터가 없을 때 시작 번호 - 기존 uid 최대 번호 + 1 (잠그지 않는 조회)
+    @Query(value = "SELECT COALESCE(MAX(u.id_number), 0) + 1 FROM uid u "
+            + "WHERE u.school_id = :schoolId AND u.cate = :cate AND u.mfg_year = :mfgYear",
+            nativeQuery = true)
+    Long findFirstFreeNumber(@Param("schoolId") Long schoolId,
+                             @Param("cate") String cate,
+                             @Param("mfgYear") String mfgYear);
+
+    // 번호 count 개 예약 - 카운터가 없으면 시작 번호 기준으로 만들고, 있으면 그 행을 잠그면서 바로 올림
+    // (한 문장으로 행을 만들거나 배타 잠금을 잡으므로, 없는 행을 잠금 조회할 때 생기는 갭 잠금 교착이 없음)
+    @Modifying
+    @Query(value = "INSERT INTO uid_counter (school_id, cate, mfg_year, next_number) "
+            + "VALUES (:schoolId, :cate, :mfgYear, :firstNumber + :count) "
+            + "ON DUPLICATE KEY UPDATE next_number = next_number + :count",
+            nativeQuery = true)
+    int reserve(@Param("schoolId") Long schoolId,
+                @Param("cate") String cate,
+                @Param("mfgYear") String mfgYear,
+                @Param("firstNumber") Long firstNumber,
+                @Param("count") int count);
+
+    // 직접 지정한 번호가 카운터보다 크면 카운터를 그 다음 번호로 올림 (카운터가 없으면 시작 번호와 비교해 만듦)
+    @Modifying
+    @Query(value = "INSERT INTO uid_counter (school_id, cate, mfg_year, next_number) "
+            + "VALUES (:schoolId, :cate, :mfgYear, GREATEST(:firstNumber, :idNumber + 1)) "
+            + "ON DUPLICATE KEY UPDATE next_number = GREATEST(next_number, :idNumber + 1)",
+            nativeQuery = true)
+    int raiseTo(@Param("schoolId") Long schoolId,
+                @Param("cate") String cate,
+                @Param("mfgYear") String mfgYear,
+                @Param("firstNumber") Long firstNumber,
+                @Param("idNumber") Long idNumber);
+}
@@ -0,0 +1,77 @@
+package com.inet.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 학교 일괄 업로드 작업의 상태
+ * 학교별 등록은 업로드 작업 스레드에서 실행되고, 끝날 때마다 파일/시트 순서 자리에 결과를 기록합니다.
+ * 요청 스레드는 작업 ID로 진행 상황과 (모두 끝난 뒤) 최종 결과를 읽어 갑니다.
+ */
+@Getter
+public class BulkImportJob {
+
+    private final String jobId;
+    private final String filename;
+    private final int totalTargets;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile ImportJob.Status status = ImportJob.Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+
+    // 파일/시트 순서대로의 결과 (아직 처리하지 않은 자리는 null, 다 끝난 뒤 getReport 로 읽음)
+    @Getter(AccessLevel.NONE)
+    private final SchoolImportResult[] results;
+    private final AtomicInteger finishedTargets = new AtomicInteger();
+
+    public BulkImportJob(String jobId, String filename, int totalTargets) {
+        this.jobId = jobId;
+        this.filename = filename;
+        this.totalTargets = totalTargets;
+        this.results = new SchoolImportResult[totalTargets];
+    }
+
+    public int getFinishedTargets() {
+        return finishedTargets.get();
+    }
+
+    public boolean isFinished() {
+        return status == ImportJob.Status.COMPLETED;
+    }
+
+    // 모든 학교가 끝난 뒤의 결과 (진행 중이면 null)
+    public BulkImportReport getReport() {
+        if (!isFinished()) {
+            return null;
+        }
+        synchronized (results) {
+            return new BulkImportReport(filename, Arrays.asList(results));
+        }
+    }
+
+    void markRunning() {
+        if (status == ImportJob.Status.QUEUED) {
+            status = ImportJob.Status.RUNNING;
+        }
+    }
+
+    /**
+     * 파일/시트 하나의 결과를 기록합니다. 마지막 결과가 기록되면 작업이 끝납니다.
+     * @param index 파일/시트 순번
+     * @param result 처리 결과
+     */
+    void recordResult(int index, SchoolImportResult result) {
+        synchronized (results) {
+            results[index] = Objects.requireNonNull(result);
+        }
+        if (finishedTargets.incrementAndGet() == totalTargets) {
+            finishedAt = LocalDateTime.now();
+            status = ImportJob.Status.COMPLETED;
+        }
+    }
+}
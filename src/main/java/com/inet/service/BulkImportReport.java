@@ -0,0 +1,26 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 여러 학교 일괄 업로드 결과 (학교별 결과는 파일/시트 순서대로)
+ */
+@Getter
+public class BulkImportReport {
+
+    private final String filename;
+    private final List<SchoolImportResult> results;
+    private final int succeeded;
+    private final int failed;
+    private final int savedCount;
+
+    public BulkImportReport(String filename, List<SchoolImportResult> results) {
+        this.filename = filename;
+        this.results = List.copyOf(results);
+        this.succeeded = (int) results.stream().filter(SchoolImportResult::isSuccess).count();
+        this.failed = results.size() - succeeded;
+        this.savedCount = results.stream().mapToInt(SchoolImportResult::getSavedCount).sum();
+    }
+}
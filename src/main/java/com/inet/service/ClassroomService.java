@@ -18,6 +18,7 @@ import java.util.Optional;
 public class ClassroomService {
     
     private final ClassroomRepository classroomRepository;
+    private final ReferenceDataCache referenceDataCache;
     
     public Classroom saveClassroom(Classroom classroom) {
         try {
@@ -35,9 +36,12 @@ public class ClassroomService {
         }
     }
     
+    // 교실 목록은 기준 데이터 캐시 사용 (교실이 바뀌면 그 학교의 캐시가 지워짐)
     public List<Classroom> getAllClassrooms() {
-        log.info("Getting all classrooms");
-        return classroomRepository.findAll();
+        return referenceDataCache.getClassrooms(null, () -> {
+            log.info("Getting all classrooms");
+            return classroomRepository.findAll();
+        });
     }
     
     public Optional<Classroom> getClassroomById(Long id) {
@@ -56,7 +60,7 @@ public class ClassroomService {
     }
     
     public List<Classroom> findBySchoolId(Long schoolId) {
-        return classroomRepository.findBySchoolSchoolId(schoolId);
+        return referenceDataCache.getClassrooms(schoolId, () -> classroomRepository.findBySchoolSchoolId(schoolId));
     }
     
     public Classroom findByRoomName(String roomName) {
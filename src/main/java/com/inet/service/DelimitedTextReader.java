@@ -0,0 +1,261 @@
+package com.inet.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * CSV/TSV 파일을 한 행씩 읽는 리더
+ * 파일을 메모리 매핑(구간 단위)으로 읽으며 바이트 단위로 필드를 나누므로, 파일 크기와 관계없이 힙 사용량이 일정합니다.
+ * 줄/행 단위 문자열을 만들지 않고, 필요한 컬럼의 값이 있는 필드만 문자열로 변환합니다.
+ * 인코딩은 UTF-8(BOM 포함)과 CP949(EUC-KR)를 자동으로 구분합니다.
+ * 따옴표로 감싼 필드(구분자/줄바꿈 포함, "" 는 " 로 해석)를 지원합니다.
+ */
+public final class DelimitedTextReader {
+
+    // 한 번에 매핑하는 파일 구간 크기
+    private static final long MAP_WINDOW_BYTES = 64L * 1024 * 1024;
+    // 구분자 자동 판단 시 살펴보는 파일 앞부분 크기
+    private static final int SNIFF_BYTES = 64 * 1024;
+
+    private static final Charset CP949 = Charset.forName("MS949");
+
+    private DelimitedTextReader() {
+    }
+
+    /**
+     * 파일명이 CSV/TSV 형식인지 확인합니다.
+     */
+    public static boolean supports(String filename) {
+        if (filename == null) {
+            return false;
+        }
+        String lowerName = filename.toLowerCase();
+        return lowerName.endsWith(".csv") || lowerName.endsWith(".tsv");
+    }
+
+    /**
+     * CSV/TSV 파일을 읽습니다. 빈 줄은 건너뜁니다.
+     * @param file CSV/TSV 파일 (.tsv 는 탭, 그 외에는 앞부분을 보고 쉼표/탭 중 선택)
+     * @param columnCount 읽을 컬럼 수 (그 뒤의 컬럼은 무시)
+     * @param handler 행 처리 콜백
+     */
+    public static void read(File file, int columnCount, ExcelRowHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return;
+            }
+
+            int bomLength = hasUtf8Bom(channel) ? 3 : 0;
+            Charset charset = bomLength > 0 || isValidUtf8(channel, size) ? StandardCharsets.UTF_8 : CP949;
+            byte delimiter = file.getName().toLowerCase().endsWith(".tsv") ? (byte) '\t' : sniffDelimiter(channel, size);
+
+            FieldParser parser = new FieldParser(columnCount, delimiter, charset, handler);
+            for (long position = bomLength; position < size; position += MAP_WINDOW_BYTES) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(MAP_WINDOW_BYTES, size - position));
+                parser.parse(buffer);
+            }
+            parser.finish();
+        }
+    }
+
+    private static boolean hasUtf8Bom(FileChannel channel) throws IOException {
+        if (channel.size() < 3) {
+            return false;
+        }
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+        return (head.get(0) & 0xFF) == 0xEF && (head.get(1) & 0xFF) == 0xBB && (head.get(2) & 0xFF) == 0xBF;
+    }
+
+    // 파일 전체가 올바른 UTF-8 바이트열인지 확인 (CP949 한글은 UTF-8 로 해석하면 대부분 바로 깨짐)
+    private static boolean isValidUtf8(FileChannel channel, long size) throws IOException {
+        int pending = 0; // 남은 연속 바이트 수
+        for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MAP_WINDOW_BYTES, size - position));
+            while (buffer.hasRemaining()) {
+                int b = buffer.get() & 0xFF;
+                if (pending > 0) {
+                    if ((b & 0xC0) != 0x80) {
+                        return false;
+                    }
+                    pending--;
+                } else if (b >= 0x80) {
+                    if (b >= 0xC2 && b <= 0xDF) {
+                        pending = 1;
+                    } else if (b >= 0xE0 && b <= 0xEF) {
+                        pending = 2;
+                    } else if (b >= 0xF0 && b <= 0xF4) {
+                        pending = 3;
+                    } else {
+                        return false;
+                    }
+                }
+            }
+        }
+        return pending == 0;
+    }
+
+    // 첫 줄에 탭이 쉼표보다 많으면 탭, 아니면 쉼표
+    private static byte sniffDelimiter(FileChannel channel, long size) throws IOException {
+        MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(SNIFF_BYTES, size));
+        int commas = 0;
+        int tabs = 0;
+        while (head.hasRemaining()) {
+            byte b = head.get();
+            if (b == '\n') {
+                break;
+            } else if (b == ',') {
+                commas++;
+            } else if (b == '\t') {
+                tabs++;
+            }
+        }
+        return tabs > commas ? (byte) '\t' : (byte) ',';
+    }
+
+    /**
+     * 바이트 단위 CSV 상태 기계
+     * 구분자/따옴표/줄바꿈은 모두 ASCII 이고 UTF-8, CP949 의 멀티바이트 문자에는 나타나지 않으므로
+     * 문자로 변환하지 않고 바이트 그대로 필드를 나눌 수 있습니다. 상태는 매핑 구간이 바뀌어도 이어집니다.
+     */
+    private static class FieldParser {
+        private final int columnCount;
+        private final byte delimiter;
+        private final Charset charset;
+        private final ExcelRowHandler handler;
+
+        private byte[] field = new byte[256];
+        private int fieldLength = 0;
+        private int column = 0;
+        private String[] cells;
+        private boolean rowHasData = false;
+
+        private boolean inQuotes = false;
+        // 따옴표 필드 안에서 따옴표를 만난 직후 (다음 바이트가 " 이면 이스케이프, 아니면 필드 끝)
+        private boolean quotePending = false;
+        private boolean afterCarriageReturn = false;
+
+        FieldParser(int columnCount, byte delimiter, Charset charset, ExcelRowHandler handler) {
+            this.columnCount = columnCount;
+            this.delimiter = delimiter;
+            this.charset = charset;
+            this.handler = handler;
+            this.cells = new String[columnCount];
+        }
+
+        void parse(MappedByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    if (b == '\n') {
+                        continue; // CRLF
+                    }
+                }
+
+                if (inQuotes) {
+                    if (quotePending) {
+                        quotePending = false;
+                        if (b == '"') {
+                            append(b);
+                            continue;
+                        }
+                        inQuotes = false;
+                        // 닫는 따옴표 뒤의 바이트는 아래에서 일반 바이트로 처리
+                    } else if (b == '"') {
+                        quotePending = true;
+                        continue;
+                    } else {
+                        append(b);
+                        continue;
+                    }
+                }
+
+                if (b == delimiter) {
+                    endField();
+                } else if (b == '\n' || b == '\r') {
+                    afterCarriageReturn = b == '\r';
+                    endRow();
+                } else if (b == '"' && fieldLength == 0) {
+                    inQuotes = true;
+                    rowHasData = true;
+                } else {
+                    append(b);
+                }
+            }
+        }
+
+        void finish() {
+            if (column > 0 || fieldLength > 0 || rowHasData) {
+                endRow();
+            }
+        }
+
+        private void append(byte b) {
+            if (column >= columnCount) {
+                return; // 읽지 않는 컬럼은 모으지 않음
+            }
+            if (fieldLength == field.length) {
+                byte[] grown = new byte[field.length * 2];
+                System.arraycopy(field, 0, grown, 0, fieldLength);
+                field = grown;
+            }
+            field[fieldLength++] = b;
+        }
+
+        private void endField() {
+            if (column < columnCount) {
+                String value = decodeField();
+                cells[column] = value;
+                if (value != null) {
+                    rowHasData = true;
+                }
+            }
+            column++;
+            fieldLength = 0;
+        }
+
+        private void endRow() {
+            if (inQuotes) {
+                // 닫는 따옴표 없이 파일이 끝난 경우
+                inQuotes = false;
+                quotePending = false;
+            }
+            endField();
+            if (rowHasData) {
+                handler.handleRow(cells);
+                cells = new String[columnCount];
+            } else {
+                // 빈 줄은 건너뛰고 배열은 재사용
+                Arrays.fill(cells, null);
+            }
+            column = 0;
+            rowHasData = false;
+        }
+
+        // 앞뒤 공백을 제외한 필드 값 (빈 필드는 문자열을 만들지 않고 null)
+        private String decodeField() {
+            int start = 0;
+            int end = fieldLength;
+            while (start < end && (field[start] == ' ' || field[start] == '\t')) {
+                start++;
+            }
+            while (end > start && (field[end - 1] == ' ' || field[end - 1] == '\t')) {
+                end--;
+            }
+            if (start == end) {
+                return null;
+            }
+            return new String(field, start, end - start, charset);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.inet.service;
+
+import com.inet.entity.School;
+import com.inet.repository.SchoolRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 모든 학교의 장비를 한 번에 출력하는 일괄 출력 서비스
+ * 학교마다 별도 트랜잭션으로 장비를 읽으며, 학교들은 제한된 수의 작업 스레드에서 동시에 읽습니다.
+ * 워크북 하나로 출력할 때는 읽은 행을 학교별 대기열로 넘기고 시트 작성은 호출한 스레드 하나에서만 합니다. (SXSSF 는 스레드 안전하지 않음)
+ * 학교별 시트(시트명 = 학교명)를 가진 워크북 하나, 또는 학교별 워크북(파일명 = 학교명)을 묶은 ZIP 파일로 출력하므로
+ * 출력한 파일을 그대로 일괄 업로드에 사용할 수 있습니다.
+ */
+@Slf4j
+@Service
+public class DeviceBulkExportService {
+
+    // 학교별 대기열에 쌓아 둘 최대 행 수 (작성이 앞 학교를 처리하는 동안 뒤 학교 읽기가 기다리는 지점)
+    private static final int ROW_QUEUE_CAPACITY = 1000;
+    // 학교 하나의 행을 모두 넘겼음을 알리는 표시
+    private static final String[] END_OF_SCHOOL = new String[0];
+
+    private final DeviceService deviceService;
+    private final SchoolRepository schoolRepository;
+    private final ExecutorService executor;
+    private final int workbookMaxSchools;
+
+    public DeviceBulkExportService(DeviceService deviceService,
+                                   SchoolRepository schoolRepository,
+                                   @Value("${inet.export.bulk-parallelism:4}") int parallelism,
+                                   @Value("${inet.export.workbook-max-schools:100}") int workbookMaxSchools) {
+        this.deviceService = deviceService;
+        this.schoolRepository = schoolRepository;
+        this.executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofVirtual().name("device-bulk-export-", 0).factory());
+        this.workbookMaxSchools = workbookMaxSchools;
+    }
+
+    /**
+     * 출력 형식을 정합니다.
+     * @param format xlsx 또는 zip (없으면 학교 수가 설정값보다 많을 때 zip)
+     */
+    public ExportFormat resolveFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return schoolRepository.count() > workbookMaxSchools ? ExportFormat.ZIP : ExportFormat.XLSX;
+        }
+        switch (format.trim().toLowerCase()) {
+            case "xlsx":
+                return ExportFormat.XLSX;
+            case "zip":
+                return ExportFormat.ZIP;
+            default:
+                throw new IllegalArgumentException("출력 형식은 xlsx 또는 zip 만 가능합니다: " + format);
+        }
+    }
+
+    /**
+     * 모든 학교의 장비를 출력합니다.
+     * @param format 출력 형식
+     * @param outputStream 출력 스트림
+     * @param progress 진행 상황 콜백
+     */
+    public void export(ExportFormat format, OutputStream outputStream, ExportProgress progress) throws IOException {
+        long start = System.currentTimeMillis();
+        List<School> schools = schoolRepository.findAll(Sort.by("schoolName"));
+        if (format == ExportFormat.ZIP) {
+            exportZip(schools, outputStream, progress);
+        } else {
+            exportWorkbook(schools, outputStream, progress);
+        }
+        log.info("전체 학교 엑셀 출력 완료: {}개 학교, {} ({}ms)", schools.size(), format, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 학교별 시트를 가진 워크북 하나
+     * DB 읽기는 작업 스레드에서 학교별로 동시에 하고, 읽은 셀 값은 학교별 대기열(크기 제한)로 넘깁니다.
+     * 시트 작성은 이 스레드에서 학교명 순서대로 대기열을 비우며 합니다.
+     * 작업 스레드는 학교 순서대로 배정되므로 지금 작성 중인 학교의 읽기는 항상 실행 중이며, 뒤 학교의 읽기만 대기열이 차면 기다립니다.
+     */
+    private void exportWorkbook(List<School> schools, OutputStream outputStream, ExportProgress progress) throws IOException {
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<BlockingQueue<String[]>> queues = new ArrayList<>();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (DeviceExcelWriter writer = new DeviceExcelWriter()) {
+            for (School school : schools) {
+                BlockingQueue<String[]> queue = new ArrayBlockingQueue<>(ROW_QUEUE_CAPACITY);
+                queues.add(queue);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        deviceService.readSchoolSheetValues(school.getSchoolId(), values -> put(queue, values, aborted));
+                    } finally {
+                        put(queue, END_OF_SCHOOL, aborted);
+                    }
+                }, executor));
+            }
+
+            for (int i = 0; i < schools.size(); i++) {
+                School school = schools.get(i);
+                DeviceExcelWriter.SchoolSheet sheet = writer.createSheet(schoolName(school), schoolName(school));
+                BlockingQueue<String[]> queue = queues.get(i);
+                for (String[] values = take(queue); values != END_OF_SCHOOL; values = take(queue)) {
+                    sheet.writeValues(values);
+                    progress.rowsWritten(1);
+                }
+                // 읽기가 실패해서 끝났으면 그 예외를 던짐
+                await(List.of(futures.get(i)));
+            }
+            writer.write(outputStream);
+        } finally {
+            // 실패한 경우 아직 읽고 있는 학교는 대기열에 넣지 않고 바로 끝내도록 함
+            aborted.set(true);
+        }
+    }
+
+    // 대기열에 넣음 (작성이 중단되었으면 읽기를 끝내기 위해 예외를 던짐)
+    private static void put(BlockingQueue<String[]> queue, String[] values, AtomicBoolean aborted) {
+        try {
+            while (!queue.offer(values, 100, TimeUnit.MILLISECONDS)) {
+                if (aborted.get()) {
+                    throw new CancellationException("엑셀 출력이 중단되었습니다.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("엑셀 출력이 중단되었습니다.");
+        }
+    }
+
+    private static String[] take(BlockingQueue<String[]> queue) throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("엑셀 출력이 중단되었습니다.");
+        }
+    }
+
+    // 학교별 워크북을 임시 파일로 동시에 만든 뒤 학교명 순서대로 ZIP 에 담음
+    private void exportZip(List<School> schools, OutputStream outputStream, ExportProgress progress) throws IOException {
+        Path[] files = new Path[schools.size()];
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < schools.size(); i++) {
+                int index = i;
+                futures.add(CompletableFuture.runAsync(() -> files[index] = writeSchoolWorkbook(schools.get(index), progress), executor));
+            }
+            await(futures);
+
+            ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+            // xlsx 는 이미 압축된 파일이므로 다시 압축하지 않음
+            zip.setLevel(Deflater.NO_COMPRESSION);
+            Set<String> entryNames = new HashSet<>();
+            for (int i = 0; i < schools.size(); i++) {
+                zip.putNextEntry(new ZipEntry(uniqueEntryName(schoolName(schools.get(i)), entryNames)));
+                Files.copy(files[i], zip);
+                zip.closeEntry();
+            }
+            zip.finish();
+        } finally {
+            for (Path file : files) {
+                if (file != null) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        log.warn("임시 파일 삭제 실패: {}", file, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Path writeSchoolWorkbook(School school, ExportProgress progress) {
+        try {
+            Path file = Files.createTempFile("device-export-", ".xlsx");
+            try (DeviceExcelWriter writer = new DeviceExcelWriter();
+                 OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+                deviceService.writeSchoolSheet(school.getSchoolId(), writer.createSheet("장비 목록", schoolName(school)), progress);
+                writer.write(os);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 모든 학교의 작업이 끝날 때까지 기다린 뒤, 실패한 작업이 있으면 그 예외를 던짐
+    private void await(List<CompletableFuture<Void>> futures) throws IOException {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private String schoolName(School school) {
+        return school.getSchoolName() != null && !school.getSchoolName().isBlank()
+                ? school.getSchoolName().trim() : "학교" + school.getSchoolId();
+    }
+
+    // 파일명에 사용할 수 없는 문자는 바꾸고, 같은 이름이 있으면 번호를 붙임
+    private String uniqueEntryName(String schoolName, Set<String> entryNames) {
+        String base = schoolName.replaceAll("[\\\\/:*?\"<>|]", "_");
+        String name = base + ".xlsx";
+        for (int i = 2; !entryNames.add(name); i++) {
+            name = base + " (" + i + ").xlsx";
+        }
+        return name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 전체 학교 출력 형식
+     */
+    public enum ExportFormat {
+        // 학교별 시트를 가진 워크북 하나
+        XLSX,
+        // 학교별 워크북을 묶은 ZIP 파일
+        ZIP
+    }
+}
@@ -0,0 +1,289 @@
+package com.inet.service;
+
+import com.inet.entity.School;
+import com.inet.repository.SchoolRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * 여러 학교의 장비를 한 번에 등록하는 일괄 업로드 서비스
+ * 학교별 엑셀/CSV 파일을 묶은 ZIP 파일(파일명 = 학교명) 또는 학교별 시트를 가진 워크북(시트명 = 학교명)을 받아
+ * 학교마다 별도 트랜잭션으로 등록하고, 학교별 결과를 따로 보고합니다.
+ * 파일을 학교별로 나누는 일은 요청 스레드에서 하고, 학교별 등록은 DeviceImportJobService 의 업로드 작업 스레드에서
+ * 단일 업로드와 같은 동시 실행 제한과 학교별 순서를 따라 백그라운드로 처리합니다.
+ */
+@Slf4j
+@Service
+public class DeviceBulkImportService {
+
+    // 압축 파일 안에서 처리할 최대 파일 수, 파일 하나의 최대 크기, 풀어 놓은 파일 전체의 최대 크기 (압축 폭탄 방지)
+    private static final int MAX_ARCHIVE_ENTRIES = 500;
+    private static final long MAX_ENTRY_BYTES = 100L * 1024 * 1024;
+    private static final long MAX_TOTAL_BYTES = 500L * 1024 * 1024;
+
+    private final DeviceService deviceService;
+    private final SchoolRepository schoolRepository;
+    private final DeviceImportJobService deviceImportJobService;
+
+    public DeviceBulkImportService(DeviceService deviceService,
+                                   SchoolRepository schoolRepository,
+                                   DeviceImportJobService deviceImportJobService) {
+        this.deviceService = deviceService;
+        this.schoolRepository = schoolRepository;
+        this.deviceImportJobService = deviceImportJobService;
+    }
+
+    /**
+     * ZIP 파일 또는 여러 시트를 가진 워크북으로 여러 학교의 장비를 등록하는 작업을 등록합니다.
+     * 학교별 등록은 백그라운드에서 실행되며, 결과는 작업 ID로 조회합니다.
+     * @param file 업로드 파일 (.zip, .xls, .xlsx)
+     * @return 등록된 일괄 업로드 작업
+     * @throws java.util.concurrent.RejectedExecutionException 처리 중인 업로드가 많아 더 받을 수 없는 경우
+     */
+    public BulkImportJob submitBulk(MultipartFile file) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        String lowerName = originalFilename != null ? originalFilename.toLowerCase() : "";
+        boolean archive = lowerName.endsWith(".zip");
+        if (!archive && !isExcelFile(lowerName)) {
+            throw new IllegalArgumentException("ZIP 파일(.zip) 또는 엑셀 파일(.xls 또는 .xlsx)만 업로드 가능합니다.");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("빈 파일입니다. 내용이 있는 파일을 업로드해주세요.");
+        }
+
+        // 임시 파일은 작업이 등록되면 모든 학교 작업이 끝난 뒤에, 등록하지 못하면 여기서 삭제
+        List<Path> tempFiles = new ArrayList<>();
+        boolean submitted = false;
+        try {
+            Path uploaded = deviceService.copyToTempFile(file);
+            tempFiles.add(uploaded);
+
+            List<ImportTarget> targets = archive
+                    ? extractArchive(uploaded, tempFiles)
+                    : sheetTargets(uploaded.toFile());
+            if (targets.isEmpty()) {
+                throw new IllegalArgumentException(archive
+                        ? "압축 파일 안에 엑셀 파일(.xls, .xlsx) 또는 CSV 파일(.csv, .tsv)이 없습니다."
+                        : "워크북에 시트가 없습니다.");
+            }
+            BulkImportJob job = new BulkImportJob(UUID.randomUUID().toString(), originalFilename, targets.size());
+            Map<Long, Runnable> tasksBySchool = planTargets(job, targets);
+            deviceImportJobService.submitBulk(job, tasksBySchool, () -> deleteTempFiles(tempFiles));
+            submitted = true;
+            log.info("일괄 업로드 등록: {} ({}개 파일/시트, {}개 학교)", originalFilename, targets.size(), tasksBySchool.size());
+            return job;
+        } finally {
+            if (!submitted) {
+                deleteTempFiles(tempFiles);
+            }
+        }
+    }
+
+    private void deleteTempFiles(List<Path> tempFiles) {
+        for (Path tempFile : tempFiles) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("임시 파일 삭제 실패: {}", tempFile, e);
+            }
+        }
+    }
+
+    /**
+     * 파일/시트 이름으로 학교를 찾아 학교별 등록 작업으로 묶습니다.
+     * 학교를 찾지 못한 항목은 바로 실패로 기록하고, 같은 학교에 해당하는 파일/시트는 한 작업에서 순서대로 등록합니다.
+     * @return 학교 ID 별 등록 작업
+     */
+    private Map<Long, Runnable> planTargets(BulkImportJob job, List<ImportTarget> targets) {
+        Map<String, School> schoolsByName = new HashMap<>();
+        for (School school : schoolRepository.findAll()) {
+            if (school.getSchoolName() != null) {
+                schoolsByName.putIfAbsent(normalizeName(school.getSchoolName()), school);
+            }
+        }
+
+        // 결과는 입력 순서대로 보고
+        Map<Long, List<Integer>> targetsBySchool = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            ImportTarget target = targets.get(i);
+            School school = schoolsByName.get(normalizeName(target.schoolName));
+            if (school == null) {
+                job.recordResult(i, SchoolImportResult.failure(target.source, null, target.schoolName,
+                        "학교를 찾을 수 없습니다: " + target.schoolName));
+                continue;
+            }
+            target.school = school;
+            targetsBySchool.computeIfAbsent(school.getSchoolId(), id -> new ArrayList<>()).add(i);
+        }
+
+        Map<Long, Runnable> tasksBySchool = new LinkedHashMap<>();
+        targetsBySchool.forEach((schoolId, indexes) -> tasksBySchool.put(schoolId, () -> {
+            int next = 0;
+            try {
+                for (; next < indexes.size(); next++) {
+                    int index = indexes.get(next);
+                    job.recordResult(index, importTarget(targets.get(index)));
+                }
+            } finally {
+                // Error 등으로 중단되어도 남은 파일/시트를 실패로 기록해야 일괄 업로드 작업이 끝남
+                for (; next < indexes.size(); next++) {
+                    ImportTarget target = targets.get(indexes.get(next));
+                    job.recordResult(indexes.get(next), SchoolImportResult.failure(target.source,
+                            target.school.getSchoolId(), target.school.getSchoolName(), "업로드 중 오류가 발생했습니다."));
+                }
+            }
+        }));
+        return tasksBySchool;
+    }
+
+    private SchoolImportResult importTarget(ImportTarget target) {
+        School school = target.school;
+        AtomicInteger savedCount = new AtomicInteger();
+        ImportProgress progress = new ImportProgress() {
+            @Override
+            public void rowsPersisted(int count) {
+                savedCount.addAndGet(count);
+            }
+        };
+        try {
+            // 학교마다 별도 트랜잭션 (한 학교가 실패해도 다른 학교는 등록됨)
+            deviceService.importDevices(target.file, target.sheetIndex, school.getSchoolId(), progress);
+            log.info("일괄 업로드 - {} ({}): {}개 장비 등록", target.source, school.getSchoolName(), savedCount.get());
+            return SchoolImportResult.success(target.source, school.getSchoolId(), school.getSchoolName(), savedCount.get());
+        } catch (IllegalArgumentException e) {
+            return SchoolImportResult.failure(target.source, school.getSchoolId(), school.getSchoolName(), e.getMessage());
+        } catch (Exception e) {
+            log.error("일괄 업로드 실패 - {} ({})", target.source, school.getSchoolName(), e);
+            return SchoolImportResult.failure(target.source, school.getSchoolId(), school.getSchoolName(),
+                    "업로드 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    // 워크북의 시트마다 시트 이름을 학교명으로 사용
+    private List<ImportTarget> sheetTargets(File workbook) throws IOException {
+        List<ImportTarget> targets = new ArrayList<>();
+        List<String> sheetNames = deviceService.getImportSheetNames(workbook);
+        for (int i = 0; i < sheetNames.size(); i++) {
+            String sheetName = sheetNames.get(i);
+            targets.add(new ImportTarget(sheetName, sheetName.trim(), workbook, i));
+        }
+        return targets;
+    }
+
+    // 압축 파일 안의 엑셀/CSV 파일마다 파일명(확장자 제외)을 학교명으로 사용하며, 각 파일의 첫 번째 시트를 읽음
+    private List<ImportTarget> extractArchive(Path archive, List<Path> tempFiles) throws IOException {
+        // 윈도우 탐색기로 만든 압축 파일은 파일명이 CP949 로 저장되어 있음
+        try {
+            return extractArchive(archive, StandardCharsets.UTF_8, tempFiles);
+        } catch (ZipException | IllegalArgumentException e) {
+            return extractArchive(archive, Charset.forName("MS949"), tempFiles);
+        }
+    }
+
+    private List<ImportTarget> extractArchive(Path archive, Charset charset, List<Path> tempFiles) throws IOException {
+        List<ImportTarget> targets = new ArrayList<>();
+        long totalBytes = 0;
+        try (ZipFile zip = new ZipFile(archive.toFile(), charset)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String entryName = entry.getName();
+                String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                // 폴더, macOS 메타데이터, 엑셀 임시 파일은 건너뜀
+                if (entry.isDirectory() || entryName.startsWith("__MACOSX/") || baseName.startsWith(".")
+                        || baseName.startsWith("~$") || !isImportFile(baseName.toLowerCase())) {
+                    continue;
+                }
+                if (targets.size() >= MAX_ARCHIVE_ENTRIES) {
+                    throw new IllegalArgumentException("압축 파일 안의 업로드 파일은 " + MAX_ARCHIVE_ENTRIES + "개까지 처리할 수 있습니다.");
+                }
+
+                // 압축 파일 안의 경로는 사용하지 않고 새 임시 파일로 풀어 놓음
+                Path tempFile = Files.createTempFile("device-bulk-", baseName.substring(baseName.lastIndexOf('.')));
+                tempFiles.add(tempFile);
+                try (InputStream is = zip.getInputStream(entry);
+                     OutputStream os = Files.newOutputStream(tempFile)) {
+                    totalBytes += copyWithLimit(is, os, entryName, MAX_TOTAL_BYTES - totalBytes);
+                }
+                String schoolName = baseName.substring(0, baseName.lastIndexOf('.')).trim();
+                targets.add(new ImportTarget(entryName, schoolName, tempFile.toFile(), 0));
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * 압축 파일 안의 파일 하나를 크기 제한을 확인하며 복사합니다.
+     * @param remainingBytes 풀어 놓은 파일 전체 크기 제한까지 남은 크기
+     * @return 복사한 크기
+     */
+    private long copyWithLimit(InputStream is, OutputStream os, String entryName, long remainingBytes) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            total += read;
+            if (total > MAX_ENTRY_BYTES) {
+                throw new IllegalArgumentException("압축 파일 안의 파일이 너무 큽니다: " + entryName);
+            }
+            if (total > remainingBytes) {
+                throw new IllegalArgumentException("압축을 푼 파일 전체 크기는 " + (MAX_TOTAL_BYTES / (1024 * 1024)) + "MB 까지 처리할 수 있습니다.");
+            }
+            os.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private boolean isExcelFile(String lowerName) {
+        return lowerName.endsWith(".xls") || lowerName.endsWith(".xlsx");
+    }
+
+    // 압축 파일 안에서는 CSV/TSV 파일도 학교별 파일로 받음
+    private boolean isImportFile(String lowerName) {
+        return isExcelFile(lowerName) || DelimitedTextReader.supports(lowerName);
+    }
+
+    // 학교명 비교 시 공백은 무시
+    private String normalizeName(String name) {
+        return name.replaceAll("\\s+", "");
+    }
+
+    /**
+     * 등록할 파일/시트 하나
+     */
+    private static class ImportTarget {
+        final String source;
+        final String schoolName;
+        final File file;
+        final int sheetIndex;
+        School school;
+
+        ImportTarget(String source, String schoolName, File file, int sheetIndex) {
+            this.source = source;
+            this.schoolName = schoolName;
+            this.file = file;
+            this.sheetIndex = sheetIndex;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.inet.service;
+
+import com.inet.entity.Device;
+import com.inet.entity.Manage;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.HorizontalAlignment;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 장비 목록 엑셀(.xlsx) 파일을 스트리밍 방식으로 작성하는 작성기
+ * SXSSF 로 최근 몇 행만 메모리에 두고 나머지는 임시 파일로 내보내므로 장비 수와 관계없이 메모리 사용량이 일정합니다.
+ * 셀 스타일은 처음에 한 번만 만들어 모든 시트에서 재사용하고, 컬럼 너비는 autoSizeColumn(폰트 측정) 대신
+ * 작성하면서 모은 컬럼별 최대 글자 폭으로 정합니다.
+ * SXSSF 워크북은 스레드 안전하지 않으므로 시트 생성과 작성은 모두 한 스레드에서 해야 합니다.
+ * 여러 스레드에서 장비를 읽는 경우에는 {@link #cellValues(Device)} 로 읽는 쪽에서 셀 값을 만들고,
+ * 작성하는 스레드에서 {@link SchoolSheet#writeValues(String[])} 로 씁니다.
+ * 사용이 끝나면 반드시 {@link #close()} 로 임시 파일을 지워야 합니다.
+ */
+public class DeviceExcelWriter implements AutoCloseable {
+
+    // 메모리에 유지할 행 수 (이보다 오래된 행은 임시 파일로 내보냄)
+    private static final int ROW_WINDOW = 100;
+
+    private static final String[] HEADERS = {"No", "고유번호", "관리번호", "종류", "직위", "취급자", "제조사", "모델명", "도입일자", "현IP주소", "설치장소", "용도", "세트분류", "비고"};
+    private static final int NOTE_COLUMN = 13;
+    // 비고가 이 글자 수보다 길면 자동 줄바꿈
+    private static final int NOTE_WRAP_LENGTH = 15;
+
+    // 컬럼 너비 (1/256 글자 단위)
+    private static final int MIN_COLUMN_WIDTH = 3000;
+    private static final int NO_COLUMN_WIDTH = 1500;
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
+
+    private final SXSSFWorkbook workbook;
+    private final CellStyle titleStyle;
+    private final CellStyle dateStyle;
+    private final CellStyle headerStyle;
+    private final CellStyle dataStyle;
+    private final CellStyle wrappingStyle;
+    private final String today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+    private final List<SchoolSheet> sheets = new ArrayList<>();
+
+    public DeviceExcelWriter() {
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+
+        // 1. 제목 스타일 (학교명 + 교실배치별 장비현황)
+        titleStyle = workbook.createCellStyle();
+        Font titleFont = workbook.createFont();
+        titleFont.setBold(true);
+        titleFont.setFontHeightInPoints((short) 14);
+        titleStyle.setFont(titleFont);
+        titleStyle.setAlignment(HorizontalAlignment.CENTER);
+
+        // 2. 날짜 스타일
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setAlignment(HorizontalAlignment.RIGHT);
+        Font dateFont = workbook.createFont();
+        dateFont.setBold(true);
+        dateStyle.setFont(dateFont);
+
+        // 3. 헤더 스타일
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        setThinBorder(headerStyle);
+
+        // 4. 데이터 스타일 (비고가 긴 행은 줄바꿈 스타일)
+        dataStyle = workbook.createCellStyle();
+        setThinBorder(dataStyle);
+        wrappingStyle = workbook.createCellStyle();
+        wrappingStyle.cloneStyleFrom(dataStyle);
+        wrappingStyle.setWrapText(true);
+    }
+
+    /**
+     * 시트를 만들고 제목/작성일자/헤더 행까지 작성합니다.
+     * @param sheetName 시트 이름 (엑셀에서 사용할 수 없는 문자는 바뀌고, 같은 이름이 있으면 번호를 붙임)
+     * @param schoolName 제목에 표시할 학교명
+     * @return 장비 행을 작성할 시트
+     */
+    public SchoolSheet createSheet(String sheetName, String schoolName) {
+        SchoolSheet sheet = new SchoolSheet(workbook.createSheet(uniqueSheetName(sheetName)), schoolName);
+        sheets.add(sheet);
+        return sheet;
+    }
+
+    /**
+     * 모든 시트의 컬럼 너비를 정하고 파일을 출력합니다.
+     * @param outputStream 출력 스트림
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        for (SchoolSheet sheet : sheets) {
+            sheet.applyColumnWidths();
+        }
+        workbook.write(outputStream);
+    }
+
+    /**
+     * 임시 파일을 지우고 워크북을 닫습니다.
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    // 시트 이름은 31자 이하, 워크북 안에서 중복 불가
+    private String uniqueSheetName(String sheetName) {
+        String base = WorkbookUtil.createSafeSheetName(sheetName != null && !sheetName.isBlank() ? sheetName : "장비 목록");
+        String name = base;
+        for (int i = 2; workbook.getSheet(name) != null; i++) {
+            String suffix = " (" + i + ")";
+            name = base.substring(0, Math.min(base.length(), 31 - suffix.length())) + suffix;
+        }
+        return name;
+    }
+
+    private static void setThinBorder(CellStyle style) {
+        style.setBorderTop(BorderStyle.THIN);
+        style.setBorderBottom(BorderStyle.THIN);
+        style.setBorderLeft(BorderStyle.THIN);
+        style.setBorderRight(BorderStyle.THIN);
+    }
+
+    /**
+     * 장비 한 대의 셀 값 (고유번호부터 비고까지, No 컬럼 제외)
+     * 워크북을 쓰지 않으므로 어느 스레드에서나 호출할 수 있습니다.
+     * @param device 장비 (연관 엔티티를 읽을 수 있는 상태여야 함)
+     * @return 컬럼 순서대로의 셀 문자열 (값이 없으면 null)
+     */
+    static String[] cellValues(Device device) {
+        return new String[] {
+                device.getUid() != null ? device.getUid().getCate() + device.getUid().getIdNumber() : "",
+                formatManageNo(device.getManage()),
+                device.getType(),
+                device.getOperator() != null ? device.getOperator().getPosition() : null,
+                device.getOperator() != null ? device.getOperator().getName() : null,
+                device.getManufacturer(),
+                device.getModelName(),
+                device.getPurchaseDate() != null ? device.getPurchaseDate().toString() : null,
+                device.getIpAddress(),
+                device.getClassroom() != null ? device.getClassroom().getRoomName() : null,
+                device.getPurpose(),
+                device.getSetType(),
+                device.getNote()
+        };
+    }
+
+    // 관리번호 표시 (카테고리-연도-번호, 없는 부분은 생략)
+    static String formatManageNo(Manage manage) {
+        if (manage == null) {
+            return "";
+        }
+        return formatManageNo(manage.getManageCate(), manage.getYear(), manage.getManageNum());
+    }
+
+    static String formatManageNo(String manageCate, Integer year, Long manageNum) {
+        StringBuilder sb = new StringBuilder();
+        if (manageCate != null) {
+            sb.append(manageCate);
+        }
+        if (year != null) {
+            sb.append('-').append(year);
+        }
+        if (manageNum != null) {
+            sb.append('-').append(manageNum);
+        }
+        return sb.toString();
+    }
+
+    // 셀에 표시되는 글자 폭 (줄바꿈이 있으면 가장 긴 줄, 한글 등 전각 문자는 2칸)
+    static int displayWidth(String value) {
+        int max = 0;
+        int width = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n') {
+                max = Math.max(max, width);
+                width = 0;
+            } else {
+                width += c < 0x1100 ? 1 : 2;
+            }
+        }
+        return Math.max(max, width);
+    }
+
+    /**
+     * 학교 하나의 장비 목록 시트
+     * 한 시트는 한 스레드에서만 채워야 합니다.
+     */
+    public final class SchoolSheet {
+        private final SXSSFSheet sheet;
+        // 컬럼별 최대 글자 폭 (한글 등 전각 문자는 2)
+        private final int[] maxWidths = new int[HEADERS.length];
+        private int rowNum;
+        private int deviceCount;
+
+        private SchoolSheet(SXSSFSheet sheet, String schoolName) {
+            this.sheet = sheet;
+
+            // 첫번째 행: 제목 (병합된 셀이므로 컬럼 너비 계산에서 제외)
+            Row titleRow = sheet.createRow(0);
+            Cell titleCell = titleRow.createCell(0);
+            titleCell.setCellValue(schoolName + " 교실배치별 장비현황");
+            titleCell.setCellStyle(titleStyle);
+            sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, HEADERS.length - 1)); // A1:N1 (비고 컬럼까지 병합)
+
+            // 두번째 행: 작성일자
+            Row dateRow = sheet.createRow(1);
+            setCell(dateRow, 12, "작성일자", dateStyle); // M2 셀
+            setCell(dateRow, 13, today, dateStyle); // N2 셀
+
+            // 세번째 행: 헤더
+            Row headerRow = sheet.createRow(2);
+            for (int i = 0; i < HEADERS.length; i++) {
+                setCell(headerRow, i, HEADERS[i], headerStyle);
+            }
+            rowNum = 3; // 4번째 행부터 데이터 시작
+        }
+
+        /**
+         * 장비 한 대를 다음 행에 작성합니다.
+         * @param device 장비
+         */
+        public void writeDevice(Device device) {
+            writeValues(cellValues(device));
+        }
+
+        /**
+         * {@link #cellValues(Device)} 로 만든 장비 한 대의 셀 값을 다음 행에 작성합니다.
+         * @param values 고유번호부터 비고까지의 셀 문자열
+         */
+        public void writeValues(String[] values) {
+            Row row = sheet.createRow(rowNum++);
+            deviceCount++;
+
+            Cell noCell = row.createCell(0);
+            noCell.setCellValue(deviceCount);
+            noCell.setCellStyle(dataStyle);
+
+            for (int col = 1; col < NOTE_COLUMN; col++) {
+                setCell(row, col, values[col - 1], dataStyle);
+            }
+            String note = values[NOTE_COLUMN - 1];
+            setCell(row, NOTE_COLUMN, note, note != null && note.length() > NOTE_WRAP_LENGTH ? wrappingStyle : dataStyle);
+        }
+
+        public int getDeviceCount() {
+            return deviceCount;
+        }
+
+        private void applyColumnWidths() {
+            // No 컬럼은 행 수로 폭 계산
+            maxWidths[0] = Math.max(maxWidths[0], String.valueOf(deviceCount).length());
+            for (int i = 0; i < HEADERS.length; i++) {
+                // 여백 2글자, 최소 너비 보장
+                int width = Math.min(MAX_COLUMN_WIDTH, Math.max(MIN_COLUMN_WIDTH, (maxWidths[i] + 2) * 256));
+                sheet.setColumnWidth(i, width);
+            }
+            // 첫 번째 컬럼(No)은 좁게 설정
+            sheet.setColumnWidth(0, NO_COLUMN_WIDTH);
+        }
+
+        private void setCell(Row row, int col, String value, CellStyle style) {
+            Cell cell = row.createCell(col);
+            cell.setCellValue(value != null ? value : "");
+            cell.setCellStyle(style);
+            if (value != null) {
+                maxWidths[col] = Math.max(maxWidths[col], displayWidth(value));
+            }
+        }
+    }
+}
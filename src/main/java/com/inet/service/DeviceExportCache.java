@@ -0,0 +1,245 @@
+package com.inet.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 장비 엑셀 출력 파일 캐시
+ * (출력 조건, 학교 데이터 버전, 작성일자)가 같으면 이전에 만든 파일을 로컬 디스크에서 그대로 보냅니다.
+ * 캐시 키로 ETag 를 만들 수 있으므로, 브라우저에 이미 같은 파일이 있으면 파일을 만들지 않고 304 로 응답할 수 있습니다.
+ * 전체 파일 크기가 설정값을 넘으면 가장 오래 사용하지 않은 파일부터 지웁니다.
+ */
+@Slf4j
+@Service
+public class DeviceExportCache {
+
+    private static final String FILE_SUFFIX = ".export";
+
+    private final SchoolDataVersions schoolDataVersions;
+    private final Path directory;
+    private final long maxBytes;
+
+    private final Map<String, CachedExport> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public DeviceExportCache(SchoolDataVersions schoolDataVersions,
+                             @Value("${inet.export.cache-dir:${java.io.tmpdir}/inet-export-cache}") String directory,
+                             @Value("${inet.export.cache-max-size-mb:512}") long maxSizeMb) throws IOException {
+        this.schoolDataVersions = schoolDataVersions;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+
+        // 데이터 버전은 서버를 다시 시작하면 처음부터 시작하므로 이전 실행에서 만든 파일은 사용하지 않음
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * 출력 조건의 현재 캐시 키를 만듭니다.
+     * @param schoolId 학교 ID (null 이면 전체)
+     * @param type 장비 타입 (null 이면 전체)
+     * @param classroomId 교실 ID (null 이면 전체)
+     * @return 캐시 키 (ETag, Last-Modified 포함)
+     */
+    public ExportKey keyFor(Long schoolId, String type, Long classroomId) {
+        SchoolDataVersions.Version version = schoolDataVersions.current(schoolId);
+        // 파일에 작성일자가 들어가므로 날짜가 바뀌면 새로 만듦
+        String value = "school=" + schoolId + "&type=" + type + "&classroom=" + classroomId
+                + "&epoch=" + schoolDataVersions.getEpoch() + "&version=" + version.getNumber()
+                + "&date=" + LocalDate.now();
+        return new ExportKey(value, sha256(value), version.getChangedAt());
+    }
+
+    /**
+     * 전체 학교 일괄 출력의 현재 캐시 키를 만듭니다. (어느 학교의 데이터가 바뀌어도 키가 바뀜)
+     * @param format 출력 형식 (xlsx, zip)
+     * @return 캐시 키 (ETag, Last-Modified 포함)
+     */
+    public ExportKey keyForAllSchools(String format) {
+        SchoolDataVersions.Version version = schoolDataVersions.current(null);
+        String value = "allSchools&format=" + format
+                + "&epoch=" + schoolDataVersions.getEpoch() + "&version=" + version.getNumber()
+                + "&date=" + LocalDate.now();
+        return new ExportKey(value, sha256(value), version.getChangedAt());
+    }
+
+    /**
+     * 캐시된 파일을 반환하고, 없으면 만들어서 저장한 뒤 반환합니다.
+     * 같은 키의 파일을 동시에 요청하면 한 번만 만듭니다.
+     * @param key 캐시 키
+     * @param builder 파일 내용을 작성하는 콜백
+     * @return 캐시된 파일
+     */
+    public CachedExport get(ExportKey key, ExportBuilder builder) throws IOException {
+        CachedExport cached = hit(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object lock = locks.computeIfAbsent(key.value, k -> new Object());
+        try {
+            synchronized (lock) {
+                cached = hit(key);
+                if (cached != null) {
+                    return cached;
+                }
+                cached = build(key, builder);
+            }
+        } finally {
+            locks.remove(key.value, lock);
+        }
+        evictIfNeeded();
+        return cached;
+    }
+
+    private CachedExport hit(ExportKey key) {
+        CachedExport cached = entries.get(key.value);
+        if (cached == null) {
+            return null;
+        }
+        if (!Files.exists(cached.file)) {
+            remove(key.value, cached);
+            return null;
+        }
+        cached.lastAccess = System.nanoTime();
+        return cached;
+    }
+
+    private CachedExport build(ExportKey key, ExportBuilder builder) throws IOException {
+        long start = System.currentTimeMillis();
+        Path tempFile = Files.createTempFile(directory, "export-", ".tmp");
+        try {
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                builder.write(os);
+            }
+            Path file = directory.resolve(key.hash + FILE_SUFFIX);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            CachedExport cached = new CachedExport(file, Files.size(file));
+            CachedExport previous = entries.put(key.value, cached);
+            if (previous != null) {
+                totalBytes.addAndGet(-previous.size);
+            }
+            totalBytes.addAndGet(cached.size);
+            log.info("엑셀 출력 캐시 저장: {} ({} bytes, {}ms)", key.value, cached.size, System.currentTimeMillis() - start);
+            return cached;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // 전체 크기가 한도를 넘으면 가장 오래 사용하지 않은 파일부터 삭제
+    private synchronized void evictIfNeeded() {
+        while (totalBytes.get() > maxBytes && entries.size() > 1) {
+            Map.Entry<String, CachedExport> oldest = null;
+            for (Map.Entry<String, CachedExport> entry : entries.entrySet()) {
+                if (oldest == null || entry.getValue().lastAccess < oldest.getValue().lastAccess) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    private void remove(String key, CachedExport cached) {
+        if (!entries.remove(key, cached)) {
+            return;
+        }
+        totalBytes.addAndGet(-cached.size);
+        try {
+            // 전송 중인 파일은 삭제해도 열려 있는 동안 끝까지 읽을 수 있음
+            Files.deleteIfExists(cached.file);
+        } catch (IOException e) {
+            log.warn("엑셀 출력 캐시 파일 삭제 실패: {}", cached.file, e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    /**
+     * 캐시에 저장할 파일 내용 작성 콜백
+     */
+    @FunctionalInterface
+    public interface ExportBuilder {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * 출력 조건과 데이터 버전으로 만든 캐시 키
+     */
+    public static final class ExportKey {
+        private final String value;
+        private final String hash;
+        private final long lastModified;
+
+        ExportKey(String value, String hash, long lastModified) {
+            this.value = value;
+            this.hash = hash;
+            this.lastModified = lastModified;
+        }
+
+        public String getEtag() {
+            return "\"" + hash.substring(0, 32) + "\"";
+        }
+
+        // 데이터가 마지막으로 바뀐 시각 (밀리초)
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    /**
+     * 캐시된 출력 파일
+     */
+    public static final class CachedExport {
+        private final Path file;
+        private final long size;
+        private volatile long lastAccess = System.nanoTime();
+
+        CachedExport(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+}
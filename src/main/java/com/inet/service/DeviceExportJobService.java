@@ -0,0 +1,209 @@
+package com.inet.service;
+
+import com.inet.repository.DeviceFilter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 장비 출력을 백그라운드에서 처리하는 작업 관리 서비스
+ * 출력 요청은 작업 ID만 받고 바로 반환되며, 실제 파일 작성은 제한된 수의 작업 스레드에서 실행됩니다.
+ * 완성된 파일은 로컬 디스크에 보관 시간 동안 저장되고 다운로드 주소로 내려받습니다.
+ * 대기 중인 작업이 가득 차면 새 출력을 거절하여, 큰 출력이 일반 화면 요청의 요청 스레드와 DB 연결을 차지하지 않도록 합니다.
+ */
+@Slf4j
+@Service
+public class DeviceExportJobService {
+
+    // 만료된 작업/파일 정리 주기
+    private static final long CLEANUP_INTERVAL_MINUTES = 1;
+
+    private final DeviceService deviceService;
+    private final DeviceBulkExportService deviceBulkExportService;
+    private final Path directory;
+    private final long ttlMinutes;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService cleanupScheduler;
+    private final Semaphore admission;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public DeviceExportJobService(DeviceService deviceService,
+                                  DeviceBulkExportService deviceBulkExportService,
+                                  @Value("${inet.export.job-dir:${java.io.tmpdir}/inet-export-jobs}") String directory,
+                                  @Value("${inet.export.job-ttl-minutes:60}") long ttlMinutes,
+                                  @Value("${inet.export.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                  @Value("${inet.export.queue-capacity:8}") int queueCapacity) throws IOException {
+        this.deviceService = deviceService;
+        this.deviceBulkExportService = deviceBulkExportService;
+        this.directory = Paths.get(directory);
+        this.ttlMinutes = ttlMinutes;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs,
+                Thread.ofVirtual().name("device-export-", 0).factory());
+        this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("device-export-cleanup").daemon(true).factory());
+        // 실행 중 + 대기 중인 작업의 최대 개수
+        this.admission = new Semaphore(maxConcurrentJobs + queueCapacity);
+
+        // 작업 목록은 메모리에만 있으므로 이전 실행에서 만든 파일은 내려받을 수 없음
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        cleanupScheduler.scheduleAtFixedRate(this::removeExpiredJobs,
+                CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 출력 작업을 등록합니다.
+     * @param format 출력 형식
+     * @param schoolId 학교 ID (null 이면 전체, 전체 학교 형식에서는 무시)
+     * @param type 장비 타입 (null 이면 전체, 전체 학교 형식에서는 무시)
+     * @param classroomId 교실 ID (null 이면 전체, 전체 학교 형식에서는 무시)
+     * @return 등록된 작업
+     * @throws RejectedExecutionException 처리 중인 작업이 많아 더 받을 수 없는 경우
+     */
+    public ExportJob submit(ExportJob.Format format, Long schoolId, String type, Long classroomId) {
+        if (format == null) {
+            throw new IllegalArgumentException("출력 형식을 선택해주세요.");
+        }
+        if (!admission.tryAcquire()) {
+            throw new RejectedExecutionException("현재 처리 중인 출력이 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        ExportJob job = format.isAllSchools()
+                ? new ExportJob(UUID.randomUUID().toString(), format, null, null, null)
+                : new ExportJob(UUID.randomUUID().toString(), format, schoolId, type, classroomId);
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            admission.release();
+            throw e;
+        }
+
+        log.info("출력 작업 등록: {} (형식: {}, 학교 ID: {}, 타입: {}, 교실 ID: {})",
+                job.getJobId(), format, job.getSchoolId(), job.getType(), job.getClassroomId());
+        return job;
+    }
+
+    public Optional<ExportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * 완료된 작업의 파일을 반환합니다.
+     * @param job 작업
+     * @return 파일 (작업이 끝나지 않았거나 파일이 이미 삭제된 경우 empty)
+     */
+    public Optional<Path> getFile(ExportJob job) {
+        Path file = job.getFile();
+        return job.getStatus() == ExportJob.Status.COMPLETED && file != null && Files.exists(file)
+                ? Optional.of(file)
+                : Optional.empty();
+    }
+
+    private void run(ExportJob job) {
+        Path tempFile = null;
+        try {
+            job.markRunning(deviceService.countFiltered(
+                    DeviceFilter.of(job.getSchoolId(), job.getType(), job.getClassroomId())));
+            log.info("출력 작업 시작: {} ({}개 장비)", job.getJobId(), job.getTotalRows());
+
+            tempFile = Files.createTempFile(directory, "job-", ".tmp");
+            try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+                write(job, os);
+            }
+            Path file = directory.resolve(job.getJobId() + "-" + job.getFormat().getFilename());
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.markCompleted(file, Files.size(file));
+        } catch (IllegalArgumentException e) {
+            job.markFailed(e.getMessage());
+        } catch (Exception e) {
+            log.error("출력 작업 실패: {}", job.getJobId(), e);
+            job.markFailed("출력 중 오류가 발생했습니다: " + e.getMessage());
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    log.warn("임시 파일 삭제 실패: {}", tempFile, e);
+                }
+            }
+            admission.release();
+            log.info("출력 작업 종료: {} ({})", job.getJobId(), job.getStatus());
+        }
+    }
+
+    private void write(ExportJob job, OutputStream os) throws IOException {
+        switch (job.getFormat()) {
+            case XLSX:
+                deviceService.exportToExcel(job.getSchoolId(), job.getType(), job.getClassroomId(), os, job);
+                break;
+            case CSV:
+            case NDJSON:
+                DeviceExportRowWriter.Format rowFormat = job.getFormat() == ExportJob.Format.CSV
+                        ? DeviceExportRowWriter.Format.CSV : DeviceExportRowWriter.Format.NDJSON;
+                try (DeviceExportRowWriter writer = DeviceExportRowWriter.create(rowFormat, os)) {
+                    deviceService.exportRows(job.getSchoolId(), job.getType(), job.getClassroomId(), writer, job);
+                }
+                break;
+            case ALL_SCHOOLS_XLSX:
+                deviceBulkExportService.export(DeviceBulkExportService.ExportFormat.XLSX, os, job);
+                break;
+            case ALL_SCHOOLS_ZIP:
+                deviceBulkExportService.export(DeviceBulkExportService.ExportFormat.ZIP, os, job);
+                break;
+        }
+    }
+
+    // 보관 시간이 지난 완료 작업과 그 파일을 삭제
+    private void removeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(ttlMinutes);
+        jobs.values().removeIf(job -> {
+            if (!job.isFinished() || !job.getFinishedAt().isBefore(threshold)) {
+                return false;
+            }
+            Path file = job.getFile();
+            if (file != null) {
+                try {
+                    // 전송 중인 파일은 삭제해도 열려 있는 동안 끝까지 읽을 수 있음
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("출력 파일 삭제 실패: {}", file, e);
+                }
+            }
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        cleanupScheduler.shutdownNow();
+    }
+}
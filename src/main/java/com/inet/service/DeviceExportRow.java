@@ -0,0 +1,58 @@
+package com.inet.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * CSV/NDJSON 출력용 장비 한 행 (연관 엔티티 값을 펼친 조회 결과)
+ * 엔티티를 만들지 않고 JPQL 생성자 표현식으로 바로 만들어지므로 영속성 컨텍스트에 쌓이지 않습니다.
+ * (생성자 파라미터 순서는 DeviceRepository.streamExportRows 의 SELECT 순서와 같아야 함)
+ */
+@Getter
+@AllArgsConstructor
+public class DeviceExportRow {
+
+    private final Long deviceId;
+    private final Long schoolId;
+    private final String schoolName;
+
+    // 고유번호 (없으면 uidCate 가 null)
+    private final String uidCate;
+    private final Long uidSchoolId;
+    private final String uidMfgYear;
+    private final Long uidIdNumber;
+
+    // 관리번호 (없으면 모두 null)
+    private final String manageCate;
+    private final Integer manageYear;
+    private final Long manageNum;
+
+    private final String type;
+    private final String operatorPosition;
+    private final String operatorName;
+    private final String manufacturer;
+    private final String modelName;
+    private final LocalDate purchaseDate;
+    private final String ipAddress;
+    private final String roomName;
+    private final String purpose;
+    private final String setType;
+    private final Boolean unused;
+    private final String note;
+
+    // 장비 목록 화면과 같은 형식의 고유번호 (카테고리 + 학교코드 + 제조년 + ID번호)
+    // ID번호는 학교/카테고리/제조년별로 매기므로 카테고리 + ID번호만으로는 학교 안에서도 겹칠 수 있음
+    public String getUidLabel() {
+        return uidCate != null ? UidLabels.display(uidCate, uidSchoolId, uidMfgYear, uidIdNumber) : null;
+    }
+
+    // 엑셀 다운로드와 같은 형식의 관리번호 (카테고리-연도-번호)
+    public String getManageNo() {
+        if (manageCate == null && manageYear == null && manageNum == null) {
+            return null;
+        }
+        return DeviceExcelWriter.formatManageNo(manageCate, manageYear, manageNum);
+    }
+}
@@ -0,0 +1,195 @@
+package com.inet.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 장비 목록을 CSV 또는 NDJSON(한 줄에 JSON 객체 하나) 형식으로 한 행씩 출력하는 작성기
+ * 행을 받는 즉시 출력 스트림에 쓰므로 전체 결과를 메모리에 모으지 않습니다.
+ * 닫으면 남은 내용을 출력 스트림으로 내보내지만 출력 스트림 자체는 닫지 않습니다.
+ */
+public abstract class DeviceExportRowWriter implements Closeable {
+
+    // 컬럼 이름 (CSV 헤더, NDJSON 키) - 다른 시스템에서 읽으므로 영문으로 고정
+    static final String[] COLUMNS = {"deviceId", "schoolId", "schoolName", "uid", "manageNo", "type",
+            "operatorPosition", "operatorName", "manufacturer", "modelName", "purchaseDate", "ipAddress",
+            "room", "purpose", "setType", "unused", "note"};
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    protected int rowCount;
+
+    /**
+     * 출력 형식에 맞는 작성기를 만듭니다.
+     * @param format 출력 형식
+     * @param outputStream 출력 스트림 (UTF-8)
+     */
+    public static DeviceExportRowWriter create(Format format, OutputStream outputStream) throws IOException {
+        return format == Format.CSV ? new CsvWriter(outputStream) : new NdjsonWriter(outputStream);
+    }
+
+    /**
+     * 장비 한 행을 출력합니다.
+     */
+    public void write(DeviceExportRow row) throws IOException {
+        writeValues(values(row));
+        rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    protected abstract void writeValues(Object[] values) throws IOException;
+
+    // COLUMNS 순서의 값 (문자열, 숫자, 논리값 또는 null)
+    private static Object[] values(DeviceExportRow row) {
+        return new Object[]{
+                row.getDeviceId(),
+                row.getSchoolId(),
+                row.getSchoolName(),
+                row.getUidLabel(),
+                row.getManageNo(),
+                row.getType(),
+                row.getOperatorPosition(),
+                row.getOperatorName(),
+                row.getManufacturer(),
+                row.getModelName(),
+                row.getPurchaseDate() != null ? row.getPurchaseDate().toString() : null,
+                row.getIpAddress(),
+                row.getRoomName(),
+                row.getPurpose(),
+                row.getSetType(),
+                row.getUnused(),
+                row.getNote()
+        };
+    }
+
+    /**
+     * 출력 형식
+     */
+    public enum Format {
+        CSV("csv", "text/csv; charset=UTF-8"),
+        NDJSON("ndjson", "application/x-ndjson");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    /**
+     * RFC 4180 형식 CSV (헤더 행 포함, 줄 끝은 CRLF, null 은 빈 값)
+     */
+    private static final class CsvWriter extends DeviceExportRowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream outputStream) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 16 * 1024);
+            writeLine(COLUMNS);
+        }
+
+        @Override
+        protected void writeValues(Object[] values) throws IOException {
+            writeLine(values);
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // 쉼표, 따옴표, 줄바꿈이 있는 값만 따옴표로 감쌈 (" 는 "" 로)
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * NDJSON (행마다 JSON 객체 한 줄, null 값도 키를 포함)
+     */
+    private static final class NdjsonWriter extends DeviceExportRowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream outputStream) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 객체 사이 구분자는 직접 줄바꿈으로 씀
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void writeValues(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                generator.writeFieldName(COLUMNS[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.inet.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 장비 엑셀 업로드를 백그라운드에서 처리하는 작업 관리 서비스
+ * 업로드 요청은 작업 ID만 받고 바로 반환되며, 실제 등록은 제한된 수의 작업 스레드에서 실행됩니다.
+ * 같은 학교의 업로드는 등록 순서대로 하나씩 처리하고,
+ * 대기 중인 작업이 가득 차면 새 업로드를 거절하여 일반 화면 요청이 DB 연결을 기다리지 않도록 합니다.
+ * 여러 학교 일괄 업로드도 같은 작업 스레드와 학교별 순서를 사용합니다.
+ */
+@Slf4j
+@Service
+public class DeviceImportJobService {
+
+    // 완료된 작업 상태를 보관하는 시간
+    private static final long FINISHED_JOB_RETENTION_MINUTES = 60;
+    // SSE 진행률 전송 주기
+    private static final long PROGRESS_INTERVAL_MILLIS = 500;
+    private static final long SSE_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final DeviceService deviceService;
+    // 한 트랜잭션에서 저장할 행 수 (0 이하면 파일 전체를 한 트랜잭션으로 저장)
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService progressScheduler;
+    private final Semaphore admission;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, BulkImportJob> bulkJobs = new ConcurrentHashMap<>();
+    // 학교별 마지막 작업 (같은 학교 작업은 이 뒤에 이어서 실행)
+    private final Map<Long, CompletableFuture<Void>> schoolTails = new ConcurrentHashMap<>();
+
+    public DeviceImportJobService(DeviceService deviceService,
+                                  @Value("${inet.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                  @Value("${inet.import.queue-capacity:8}") int queueCapacity,
+                                  @Value("${inet.import.chunk-size:1000}") int chunkSize) {
+        this.deviceService = deviceService;
+        this.chunkSize = chunkSize;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs,
+                Thread.ofVirtual().name("device-import-", 0).factory());
+        this.progressScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("device-import-progress").daemon(true).factory());
+        // 실행 중 + 대기 중인 작업의 최대 개수
+        this.admission = new Semaphore(maxConcurrentJobs + queueCapacity);
+    }
+
+    /**
+     * 업로드 작업을 등록합니다.
+     * @param file 업로드 파일
+     * @param schoolId 학교 ID
+     * @param mode 등록 방식 (새로 등록 / 기존 장비와 대조)
+     * @return 등록된 작업
+     * @throws RejectedExecutionException 처리 중인 작업이 많아 더 받을 수 없는 경우
+     */
+    public ImportJob submit(MultipartFile file, Long schoolId, ImportJob.Mode mode) throws IOException {
+        deviceService.validateUploadFile(file);
+        removeExpiredJobs();
+
+        if (!admission.tryAcquire()) {
+            throw new RejectedExecutionException("현재 처리 중인 업로드가 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+
+        Path tempFile;
+        try {
+            tempFile = deviceService.copyToTempFile(file);
+        } catch (IOException | RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), schoolId, file.getOriginalFilename(), mode);
+        jobs.put(job.getJobId(), job);
+        schoolTails.compute(schoolId, (id, tail) -> afterPrevious(tail).thenRunAsync(() -> run(job, tempFile), executor));
+
+        log.info("업로드 작업 등록: {} (학교 ID: {}, 파일: {}, 방식: {})", job.getJobId(), schoolId, job.getFilename(), mode);
+        return job;
+    }
+
+    /**
+     * 여러 학교 일괄 업로드 작업을 등록합니다.
+     * 학교별 등록 작업은 단일 업로드와 같은 작업 스레드에서, 같은 학교의 앞선 업로드가 끝난 뒤에 실행됩니다.
+     * 일괄 업로드 전체가 대기열 한 자리를 차지하며, 모든 학교 작업이 끝나면 cleanup 을 실행하고 자리를 반납합니다.
+     * @param job 일괄 업로드 작업
+     * @param tasksBySchool 학교 ID 별 등록 작업 (작업 안에서 예외를 처리하고 결과를 job 에 기록해야 함)
+     * @param cleanup 모든 학교 작업이 끝난 뒤 실행할 정리 작업 (임시 파일 삭제 등)
+     * @return 등록된 작업
+     * @throws RejectedExecutionException 처리 중인 작업이 많아 더 받을 수 없는 경우 (cleanup 은 실행하지 않음)
+     */
+    public BulkImportJob submitBulk(BulkImportJob job, Map<Long, Runnable> tasksBySchool, Runnable cleanup) {
+        removeExpiredJobs();
+        if (!admission.tryAcquire()) {
+            throw new RejectedExecutionException("현재 처리 중인 업로드가 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        bulkJobs.put(job.getJobId(), job);
+        if (tasksBySchool.isEmpty()) {
+            finishBulk(job, cleanup);
+            return job;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(tasksBySchool.size());
+        for (Map.Entry<Long, Runnable> entry : tasksBySchool.entrySet()) {
+            Runnable task = entry.getValue();
+            schoolTails.compute(entry.getKey(), (id, tail) -> afterPrevious(tail)
+                    .thenRunAsync(() -> {
+                        try {
+                            job.markRunning();
+                            task.run();
+                        } catch (RuntimeException | Error e) {
+                            log.error("일괄 업로드 학교 작업 실패: {} (학교 ID: {})", job.getJobId(), entry.getKey(), e);
+                        } finally {
+                            if (remaining.decrementAndGet() == 0) {
+                                finishBulk(job, cleanup);
+                            }
+                        }
+                    }, executor));
+        }
+        log.info("일괄 업로드 작업 등록: {} (파일: {}, {}개 학교)", job.getJobId(), job.getFilename(), tasksBySchool.size());
+        return job;
+    }
+
+    /**
+     * 같은 학교의 앞선 작업이 끝나면 (예외로 끝나도) 완료되는 future
+     * 앞선 작업에서 Error 가 새어 나와도 뒤에 등록된 작업이 실행되도록 결과와 예외를 버립니다.
+     */
+    private static CompletableFuture<Void> afterPrevious(CompletableFuture<Void> tail) {
+        if (tail == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return tail.handle((result, e) -> null);
+    }
+
+    private void finishBulk(BulkImportJob job, Runnable cleanup) {
+        try {
+            cleanup.run();
+        } finally {
+            admission.release();
+            log.info("일괄 업로드 작업 종료: {} ({}/{}개 파일/시트 처리)", job.getJobId(), job.getFinishedTargets(), job.getTotalTargets());
+        }
+    }
+
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Optional<BulkImportJob> getBulkJob(String jobId) {
+        return Optional.ofNullable(bulkJobs.get(jobId));
+    }
+
+    /**
+     * 작업 진행 상황을 SSE 로 주기적으로 보냅니다. 작업이 끝나면 마지막 상태를 보내고 연결을 닫습니다.
+     * @param job 작업
+     * @return SSE emitter
+     */
+    public SseEmitter subscribe(ImportJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        ScheduledFuture<?>[] task = new ScheduledFuture<?>[1];
+        task[0] = progressScheduler.scheduleAtFixedRate(() -> {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(job));
+                if (job.isFinished()) {
+                    emitter.complete();
+                    task[0].cancel(false);
+                }
+            } catch (Exception e) {
+                // 클라이언트 연결이 끊긴 경우
+                emitter.completeWithError(e);
+                task[0].cancel(false);
+            }
+        }, PROGRESS_INTERVAL_MILLIS, PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        emitter.onTimeout(() -> task[0].cancel(false));
+        emitter.onCompletion(() -> task[0].cancel(false));
+        return emitter;
+    }
+
+    private void run(ImportJob job, Path tempFile) {
+        job.markRunning();
+        log.info("업로드 작업 시작: {}", job.getJobId());
+        try {
+            if (job.getMode() == ImportJob.Mode.RECONCILE) {
+                // 대조 모드는 바뀐 행만 쓰므로 한 트랜잭션으로 처리
+                ImportReconcileReport report = deviceService.reconcileDevices(tempFile.toFile(), job.getSchoolId(), job);
+                job.markCompleted("업로드 성공! (" + report.summary() + ")");
+            } else if (chunkSize > 0) {
+                int resumedAfter = deviceService.importDevicesInChunks(tempFile.toFile(), job.getSchoolId(),
+                        job.getFilename(), chunkSize, job);
+                String resumed = resumedAfter > 0
+                        ? ", 이전 업로드에서 저장된 " + (resumedAfter + 1) + "번째 행 다음부터 이어서 등록"
+                        : "";
+                job.markCompleted("업로드 성공! (" + job.getRowsPersisted() + "개 장비 등록" + resumed + ")");
+            } else {
+                deviceService.importDevices(tempFile.toFile(), job.getSchoolId(), job);
+                job.markCompleted("업로드 성공! (" + job.getRowsPersisted() + "개 장비 등록)");
+            }
+        } catch (IllegalArgumentException e) {
+            job.markFailed(e.getMessage() + resumeHint(job));
+        } catch (Exception e) {
+            log.error("업로드 작업 실패: {}", job.getJobId(), e);
+            job.markFailed("업로드 중 오류가 발생했습니다: " + e.getMessage() + resumeHint(job));
+        } catch (Error e) {
+            // 작업이 실행 중 상태로 남지 않도록 실패로 기록한 뒤 다시 던짐 (임시 파일과 대기열 자리는 finally 에서 반납)
+            log.error("업로드 작업 실패: {}", job.getJobId(), e);
+            job.markFailed("업로드 중 오류가 발생했습니다." + resumeHint(job));
+            throw e;
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                log.warn("임시 파일 삭제 실패: {}", tempFile, e);
+            }
+            admission.release();
+            log.info("업로드 작업 종료: {} ({})", job.getJobId(), job.getStatus());
+        }
+    }
+
+    // 나눠서 커밋하는 중에 실패하면 이미 저장된 행이 있으므로 이어서 올리는 방법을 안내
+    private String resumeHint(ImportJob job) {
+        if (chunkSize > 0 && job.getMode() == ImportJob.Mode.APPEND && job.getRowsPersisted() > 0) {
+            return " (" + job.getRowsPersisted() + "개 장비는 저장되었습니다. 같은 파일을 다시 업로드하면 저장된 행 다음부터 이어서 등록합니다.)";
+        }
+        return "";
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(FINISHED_JOB_RETENTION_MINUTES);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+        bulkJobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        progressScheduler.shutdownNow();
+    }
+}
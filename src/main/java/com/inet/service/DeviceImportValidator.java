@@ -0,0 +1,195 @@
+package com.inet.service;
+
+import com.inet.entity.School;
+import com.inet.entity.Uid;
+import com.inet.repository.ClassroomRepository;
+import com.inet.repository.ManageRepository;
+import com.inet.repository.OperatorRepository;
+import com.inet.repository.SchoolRepository;
+import com.inet.repository.UidRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 장비 엑셀 업로드 파일을 저장하지 않고 검증(dry-run)하는 서비스
+ * 파일을 한 번 스트리밍으로 읽으면서 첫 번째 오류에서 멈추지 않고 모든 행의 오류/경고를 모아 보고합니다.
+ * 학교의 기준 데이터(취급자/관리번호/교실/고유번호)는 시작할 때 한 번만 읽고, DB 에는 아무것도 쓰지 않습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DeviceImportValidator {
+
+    private final DeviceService deviceService;
+    private final SchoolRepository schoolRepository;
+    private final OperatorRepository operatorRepository;
+    private final ManageRepository manageRepository;
+    private final ClassroomRepository classroomRepository;
+    private final UidRepository uidRepository;
+    private final UidCategoryClassifier uidCategoryClassifier;
+
+    /**
+     * 업로드 파일을 검증합니다.
+     * @param file 업로드 파일
+     * @param schoolId 학교 ID
+     * @return 검증 결과
+     */
+    public ImportValidationReport validate(MultipartFile file, Long schoolId) throws IOException {
+        deviceService.validateUploadFile(file);
+        Path tempFile = deviceService.copyToTempFile(file);
+        try {
+            return validate(tempFile.toFile(), schoolId, file.getOriginalFilename());
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 임시 파일로 저장된 업로드 파일을 검증합니다.
+     * @param file 엑셀 파일
+     * @param schoolId 학교 ID
+     * @param filename 원본 파일명
+     * @return 검증 결과
+     */
+    public ImportValidationReport validate(File file, Long schoolId, String filename) throws IOException {
+        School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("학교를 찾을 수 없습니다."));
+
+        ImportResolutionContext context = new ImportResolutionContext(school, operatorRepository, manageRepository, classroomRepository);
+        Set<String> existingUids = new HashSet<>();
+        for (Uid uid : uidRepository.findBySchool(school)) {
+            existingUids.add(UidLabels.display(uid));
+            existingUids.add(UidLabels.exported(uid));
+        }
+
+        ImportValidationReport report = new ImportValidationReport(filename);
+        ValidatingRowHandler handler = new ValidatingRowHandler(report, context, existingUids, uidCategoryClassifier.current());
+        deviceService.readImportSheet(file, handler);
+
+        if (handler.physicalRows <= 1) {
+            report.add(ImportIssue.error(1, null, "데이터가 없습니다. 최소한 헤더행과 1개 이상의 데이터행이 필요합니다."));
+        }
+        log.info("업로드 파일 검증 완료: {} (행: {}, 오류: {}, 경고: {})",
+                filename, report.getTotalRows(), report.getErrorCount(), report.getWarningCount());
+        return report;
+    }
+
+    /**
+     * 읽은 행을 바로 검증해 보고서에 기록하는 핸들러 (행을 모아 두지 않음)
+     * 새로 만들어질 교실/취급자/관리번호는 같은 값마다 처음 나온 행에서 한 번만 알립니다.
+     */
+    private static class ValidatingRowHandler implements ExcelRowHandler {
+        private final ImportValidationReport report;
+        private final ImportResolutionContext context;
+        private final Set<String> existingUids;
+        private final UidCategoryRules uidCategoryRules;
+
+        // 파일 안에서 처음 나온 행 번호 (중복 확인용)
+        private final Map<String, Integer> uidRows = new HashMap<>();
+        private final Set<String> newClassrooms = new HashSet<>();
+        private final Set<String> newOperators = new HashSet<>();
+        private final Set<String> newManages = new HashSet<>();
+        private final PurchaseDateCache purchaseDates = new PurchaseDateCache();
+        private int physicalRows = 0;
+
+        ValidatingRowHandler(ImportValidationReport report, ImportResolutionContext context, Set<String> existingUids,
+                             UidCategoryRules uidCategoryRules) {
+            this.report = report;
+            this.context = context;
+            this.existingUids = existingUids;
+            this.uidCategoryRules = uidCategoryRules;
+        }
+
+        @Override
+        public void handleRow(String[] cells) {
+            physicalRows++;
+            if (physicalRows == 1) {
+                return; // 헤더 행
+            }
+            int rowCount = physicalRows - 1;
+            int row = rowCount + 1;
+
+            if (DeviceRowParser.isEmptyRow(cells)) {
+                report.rowRead(false);
+                return;
+            }
+
+            List<ImportIssue> issues = DeviceRowParser.check(cells, rowCount, purchaseDates);
+            boolean valid = issues.stream().noneMatch(issue -> issue.getLevel() == ImportIssue.Level.ERROR);
+            issues.forEach(report::add);
+
+            checkType(cells[0], cells[2], row);
+            checkUid(cells[0], row);
+            checkReferences(cells, row);
+            report.rowRead(valid);
+        }
+
+        // 고유번호 없이 등록되는 장비의 타입에 UID 카테고리 규칙이 있는지 확인
+        private void checkType(String uidInfo, String type, int row) {
+            if ((uidInfo == null || uidInfo.trim().isEmpty()) && type != null && !type.trim().isEmpty()
+                    && !uidCategoryRules.isKnownType(type)) {
+                report.add(ImportIssue.warning(row, "종류", "등록되지 않은 장비 타입입니다. UID 카테고리 "
+                        + UidCategoryRules.DEFAULT_UID_CATE + "(기타)로 등록됩니다: " + type));
+            }
+        }
+
+        // 번호까지 적힌 고유번호가 파일 안에서 중복되거나 이미 등록되어 있는지 확인
+        private void checkUid(String uidInfo, int row) {
+            if (!UidLabels.isNumbered(uidInfo)) {
+                return;
+            }
+            String label = uidInfo.trim();
+            Integer firstRow = uidRows.putIfAbsent(label, row);
+            if (firstRow != null) {
+                report.add(ImportIssue.warning(row, "고유번호", "고유번호가 " + firstRow + "번째 행과 중복됩니다: " + label));
+            } else if (existingUids.contains(label)) {
+                report.add(ImportIssue.warning(row, "고유번호", "이미 등록된 고유번호입니다. 새로 등록 방식이면 새 장비로 추가되고, 대조 방식이면 기존 장비를 수정합니다: " + label));
+            }
+        }
+
+        // 기준 데이터에 없어서 업로드 시 새로 만들어질 항목 알림
+        private void checkReferences(String[] cells, int row) {
+            String classroomName = cells[9];
+            if (classroomName != null && !classroomName.isBlank()) {
+                String name = classroomName.trim();
+                if (!context.hasClassroom(name) && newClassrooms.add(name)) {
+                    report.add(ImportIssue.warning(row, "설치장소", "등록되지 않은 교실입니다. 업로드하면 새 교실로 추가됩니다: " + name));
+                }
+            }
+
+            String position = cells[3];
+            String name = cells[4];
+            if (name != null && !name.isEmpty() && position != null && !position.isEmpty()
+                    && !context.hasOperator(name, position) && newOperators.add(name + " (" + position + ")")) {
+                report.add(ImportIssue.warning(row, "취급자", "등록되지 않은 취급자입니다. 업로드하면 새 취급자로 추가됩니다: "
+                        + name + " (" + position + ")"));
+            }
+
+            String manageNo = cells[1];
+            if (manageNo != null && !manageNo.trim().isEmpty()) {
+                try {
+                    DeviceRowParser.ManageNumber mn = DeviceRowParser.parseManageNo(manageNo);
+                    if (!context.hasManage(mn.manageCate, mn.year, mn.manageNum) && newManages.add(manageNo.trim())) {
+                        report.add(ImportIssue.warning(row, "관리번호", "등록되지 않은 관리번호입니다. 업로드하면 새로 추가됩니다: " + manageNo.trim()));
+                    }
+                } catch (Exception e) {
+                    // 형식 오류는 행 검증에서 이미 보고함
+                }
+            }
+        }
+    }
+}
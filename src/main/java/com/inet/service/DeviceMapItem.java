@@ -0,0 +1,90 @@
+package com.inet.service;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 배치도 화면용 장비 한 건 (배치도에 필요한 값만 펼친 조회 결과)
+ * 엔티티 대신 JPQL 생성자 표현식으로 바로 만들어지므로 연관 엔티티와 비고(TEXT) 등 화면에 쓰지 않는 값은 읽지도 보내지도 않습니다.
+ * JSON 으로 보낼 항목은 fields 로 고를 수 있습니다. (직렬화할 때 {@link #FILTER} 필터를 반드시 지정해야 함)
+ * (생성자 파라미터 순서는 DeviceRepository.findMapItemsBySchoolId 의 SELECT 순서와 같아야 함)
+ */
+@Getter
+@AllArgsConstructor
+@JsonFilter(DeviceMapItem.FILTER)
+public class DeviceMapItem {
+
+    // JSON 항목 선택 필터 이름
+    public static final String FILTER = "deviceMapItemFields";
+
+    // 선택할 수 있는 JSON 항목
+    public static final List<String> FIELDS = List.of("deviceId", "classroomId", "roomName", "type", "uid",
+            "manageNo", "operatorPosition", "operatorName", "setType", "unused");
+
+    private final Long deviceId;
+    private final Long classroomId;
+    private final String roomName;
+    private final String type;
+    // 고유번호 (없으면 uidCate 가 null)
+    @JsonIgnore
+    private final String uidCate;
+    @JsonIgnore
+    private final Long uidSchoolId;
+    @JsonIgnore
+    private final String uidMfgYear;
+    @JsonIgnore
+    private final Long uidIdNumber;
+    // 관리번호 (없으면 모두 null)
+    @JsonIgnore
+    private final String manageCate;
+    @JsonIgnore
+    private final Integer manageYear;
+    @JsonIgnore
+    private final Long manageNum;
+    private final String operatorPosition;
+    private final String operatorName;
+    private final String setType;
+    private final Boolean unused;
+
+    // 장비 목록 화면과 같은 형식의 고유번호
+    public String getUid() {
+        return uidCate != null ? UidLabels.display(uidCate, uidSchoolId, uidMfgYear, uidIdNumber) : null;
+    }
+
+    // 엑셀 다운로드와 같은 형식의 관리번호 (카테고리-연도-번호)
+    public String getManageNo() {
+        if (manageCate == null && manageYear == null && manageNum == null) {
+            return null;
+        }
+        return DeviceExcelWriter.formatManageNo(manageCate, manageYear, manageNum);
+    }
+
+    /**
+     * fields 파라미터를 JSON 항목 목록으로 바꿉니다.
+     * @param fields 쉼표로 구분한 항목 이름 (없으면 전체)
+     * @return 선택한 항목 (null 이면 전체)
+     */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String value : fields.split(",")) {
+            String field = value.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("알 수 없는 항목입니다: " + field + " (가능한 항목: " + String.join(", ", FIELDS) + ")");
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? null : selected;
+    }
+}
@@ -0,0 +1,48 @@
+package com.inet.service;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * 엑셀 한 행을 검증/변환한 결과 (DB 조회 전 단계)
+ * 취급자/관리번호/교실은 아직 엔티티로 매칭하지 않은 원본 값만 가지고 있습니다.
+ */
+@Getter
+@Builder
+public class DeviceRow {
+
+    // 헤더를 제외한 행 순번 (오류 메시지에는 rowCount + 1 번째 행으로 표시)
+    private final int rowCount;
+
+    // UID 컬럼 원본 값 (카테고리만 있거나 번호까지 포함된 고유번호, 없으면 null)
+    private final String uidInfo;
+
+    // 관리번호 (관리번호가 없으면 manageCate 가 null)
+    private final String manageCate;
+    private final Integer manageYear;
+    private final Long manageNum;
+
+    private final String type;
+    private final String operatorPosition;
+    private final String operatorName;
+    private final String manufacturer;
+    private final String modelName;
+    private final LocalDate purchaseDate;
+    private final String ipAddress;
+    private final String classroomName;
+    private final String purpose;
+    private final String setType;
+    private final String note;
+
+    public boolean hasManage() {
+        return manageCate != null;
+    }
+
+    // 취급자는 직위와 이름이 모두 있어야 등록됨
+    public boolean hasOperator() {
+        return operatorName != null && !operatorName.isEmpty()
+                && operatorPosition != null && !operatorPosition.isEmpty();
+    }
+}
@@ -0,0 +1,396 @@
+package com.inet.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 엑셀 업로드 행을 DeviceRow 로 검증/변환하는 파서
+ * DB 나 공유 상태를 사용하지 않으므로 여러 스레드에서 동시에 호출해도 안전하며,
+ * 큰 파일은 행 묶음 단위로 fork-join 풀에서 병렬로 처리합니다.
+ */
+@Slf4j
+public final class DeviceRowParser {
+
+    // 한 작업이 순차로 처리하는 최대 행 수 (이보다 많으면 나눠서 병렬 처리)
+    private static final int CHUNK_SIZE = 512;
+
+    private DeviceRowParser() {
+    }
+
+    /**
+     * 연속된 데이터 행 한 묶음을 병렬로 파싱합니다.
+     * 결과는 파일의 행 순서를 유지하며, 오류가 있으면 가장 앞선 행의 오류를 던집니다.
+     * 파일 전체가 아니라 {@link DeviceRowWindowHandler} 가 모은 고정 크기 묶음 단위로 호출합니다.
+     * @param rows 헤더를 제외한 행의 셀 문자열 목록
+     * @param firstRowCount rows 의 첫 행의 행 순번 (헤더를 제외하고 1부터 시작)
+     * @param purchaseDates 업로드 단위 도입일자 변환 캐시
+     * @param progress 진행 상황 콜백 (rowParsed 는 여러 스레드에서 호출됨)
+     * @return 빈 행을 제외한 파싱 결과
+     */
+    public static List<DeviceRow> parseAll(List<String[]> rows, int firstRowCount,
+                                           PurchaseDateCache purchaseDates, ImportProgress progress) {
+        DeviceRow[] parsed = new DeviceRow[rows.size()];
+        IllegalArgumentException[] errors = new IllegalArgumentException[rows.size()];
+        AtomicInteger firstErrorIndex = new AtomicInteger(Integer.MAX_VALUE);
+
+        ParseTask task = new ParseTask(rows, firstRowCount, parsed, errors, firstErrorIndex, purchaseDates, progress, 0, rows.size());
+        if (rows.size() <= CHUNK_SIZE) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+
+        if (firstErrorIndex.get() != Integer.MAX_VALUE) {
+            throw errors[firstErrorIndex.get()];
+        }
+
+        List<DeviceRow> result = new ArrayList<>(parsed.length);
+        for (DeviceRow row : parsed) {
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 엑셀 한 행을 검증하고 DeviceRow 로 변환합니다.
+     * @param cells 행의 셀 문자열
+     * @param rowCount 헤더를 제외한 행 순번 (오류 메시지에는 rowCount + 1 번째 행으로 표시)
+     * @param purchaseDates 업로드 단위 도입일자 변환 캐시
+     * @return 변환 결과 (빈 행이면 null)
+     * @throws IllegalArgumentException 필수 값이 없거나 형식이 잘못된 경우 ("N번째 행 ..." 메시지)
+     */
+    public static DeviceRow parse(String[] cells, int rowCount, PurchaseDateCache purchaseDates) {
+        try {
+            // 빈 행 체크 - 타입(3번째 컬럼)이 비어있으면 스킵
+            if (isEmptyRow(cells)) {
+                return null;
+            }
+
+            // UID 정보 (첫 번째 컬럼)
+            String uidInfo = cells[0];
+
+            // 관리번호는 두 번째 컬럼(1)
+            String manageNo = cells[1];
+            ManageNumber mn = null;
+            if (manageNo != null && !manageNo.trim().isEmpty()) {
+                try {
+                    mn = parseManageNo(manageNo);
+                } catch (Exception e) {
+                    // 특정 행의 관리번호 오류를 알림
+                    throw new IllegalArgumentException((rowCount+1) + "번째 행의 관리번호 형식이 잘못되었습니다: " + manageNo);
+                }
+            }
+
+            // 타입 정보 (세 번째 컬럼) - 필수 값
+            String type = cells[2];
+            if (type == null || type.trim().isEmpty()) {
+                throw new IllegalArgumentException((rowCount+1) + "번째 행에 장비 타입이 없습니다. 장비 타입은 필수 값입니다.");
+            }
+
+            // 설치장소(교실) - 필수 항목
+            String classroomName = cells[9];
+            if (classroomName == null || classroomName.isBlank()) {
+                throw new IllegalArgumentException((rowCount+1) + "번째 행에 설치장소(교실)가 지정되지 않았습니다. 설치장소는 필수 항목입니다.");
+            }
+
+            // 도입일자 컬럼 (형식을 알 수 없으면 빈 값으로 처리)
+            String dateValue = cells[7];
+            LocalDate purchaseDate = null;
+            if (dateValue != null && !dateValue.isBlank()) {
+                purchaseDate = purchaseDates.parse(dateValue);
+            }
+
+            return DeviceRow.builder()
+                    .rowCount(rowCount)
+                    .uidInfo(uidInfo != null && !uidInfo.trim().isEmpty() ? uidInfo.trim() : null)
+                    .manageCate(mn != null ? mn.manageCate : null)
+                    .manageYear(mn != null ? mn.year : null)
+                    .manageNum(mn != null ? mn.manageNum : null)
+                    .type(type)
+                    .operatorPosition(cells[3])
+                    .operatorName(cells[4])
+                    .manufacturer(cells[5])
+                    .modelName(cells[6])
+                    .purchaseDate(purchaseDate)
+                    .ipAddress(cells[8])
+                    .classroomName(classroomName.trim())
+                    .purpose(cells[10])
+                    .setType(cells[11])
+                    .note(cells[12])
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalArgumentException((rowCount+1) + "번째 행 처리 중 오류가 발생했습니다: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 엑셀 한 행의 모든 문제를 예외 없이 모읍니다. (업로드 검증용)
+     * {@link #parse(String[], int, PurchaseDateCache)} 에서 업로드를 실패시키는 문제는 ERROR,
+     * 업로드는 되지만 값이 빠지거나 기본값으로 바뀌는 문제는 WARNING 으로 보고합니다.
+     * @param cells 행의 셀 문자열
+     * @param rowCount 헤더를 제외한 행 순번
+     * @param purchaseDates 업로드 단위 도입일자 변환 캐시
+     * @return 발견한 문제 (빈 행이거나 문제가 없으면 빈 목록)
+     */
+    public static List<ImportIssue> check(String[] cells, int rowCount, PurchaseDateCache purchaseDates) {
+        List<ImportIssue> issues = new ArrayList<>();
+        if (isEmptyRow(cells)) {
+            return issues;
+        }
+        int row = rowCount + 1;
+
+        String manageNo = cells[1];
+        if (manageNo != null && !manageNo.trim().isEmpty()) {
+            try {
+                parseManageNo(manageNo);
+            } catch (Exception e) {
+                issues.add(ImportIssue.error(row, "관리번호", "관리번호 형식이 잘못되었습니다: " + manageNo
+                        + " ('관리카테고리-일련번호' 또는 '관리카테고리-연도-일련번호' 형식이어야 합니다.)"));
+            }
+        }
+
+        String type = cells[2];
+        if (type == null || type.trim().isEmpty()) {
+            issues.add(ImportIssue.error(row, "종류", "장비 타입이 없습니다. 장비 타입은 필수 값입니다."));
+        }
+
+        String position = cells[3];
+        String name = cells[4];
+        boolean hasPosition = position != null && !position.isEmpty();
+        boolean hasName = name != null && !name.isEmpty();
+        if (hasPosition != hasName) {
+            issues.add(ImportIssue.warning(row, hasName ? "직위" : "취급자", "직위와 취급자가 모두 있어야 취급자가 등록됩니다."));
+        }
+
+        String dateValue = cells[7];
+        if (dateValue != null && !dateValue.isBlank() && purchaseDates.parse(dateValue) == null) {
+            issues.add(ImportIssue.warning(row, "도입일자", "도입일자 형식을 알 수 없어 빈 값으로 등록됩니다: " + dateValue));
+        }
+
+        String classroomName = cells[9];
+        if (classroomName == null || classroomName.isBlank()) {
+            issues.add(ImportIssue.error(row, "설치장소", "설치장소(교실)가 지정되지 않았습니다. 설치장소는 필수 항목입니다."));
+        }
+        return issues;
+    }
+
+    // 빈 행 여부 체크
+    static boolean isEmptyRow(String[] cells) {
+        // 최소한 타입(3번째 컬럼)은 있어야 함
+        String typeValue = cells[2];
+        if (typeValue == null || typeValue.trim().isEmpty()) return true;
+
+        // 타입 외에 최소한 하나의 다른 컬럼에 데이터가 있어야 함
+        for (int i = 0; i <= 12; i++) {
+            if (i == 2) continue; // 타입 컬럼은 이미 체크함
+
+            String value = cells[i];
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class ManageNumber {
+        final String manageCate;
+        final Integer year;
+        final Long manageNum;
+        ManageNumber(String manageCate, Integer year, Long manageNum) {
+            this.manageCate = manageCate;
+            this.year = year;
+            this.manageNum = manageNum;
+        }
+    }
+
+    static ManageNumber parseManageNo(String manageNo) {
+        String[] parts = manageNo.split("-");
+        if (parts.length == 3) {
+            return new ManageNumber(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } else if (parts.length == 2) {
+            return new ManageNumber(parts[0], null, Long.parseLong(parts[1]));
+        } else {
+            throw new IllegalArgumentException("관리번호 형식이 잘못되었습니다. 확인하여주세요. ('관리카테고리-일련번호' 또는 '관리카테고리-연도-일련번호' 형식이어야 합니다.)");
+        }
+    }
+
+    /**
+     * 도입일자 문자열을 날짜로 변환합니다.
+     * 정규식이나 중간 문자열 없이 한 번 훑으면서 숫자 묶음을 모읍니다.
+     * 년/월 . / - 는 구분자(연속된 구분자와 끝의 구분자는 무시), 공백과 '일'은 무시합니다.
+     * YYYY-M-D, YYYY-M(1일), YYYY(1월 1일), YY-M(1일), YY(1월 1일) 형식을 지원하며
+     * 일자가 그 달의 마지막 날보다 크면(31일 이하) 마지막 날로 맞춥니다.
+     * @param value 셀 문자열 (날짜 서식 셀은 2023-03-01T00:00 형태)
+     * @return 날짜 (형식을 알 수 없으면 null)
+     */
+    static LocalDate parseLocalDate(String value) {
+        if (value == null || value.isBlank()) return null;
+
+        // 날짜 서식 셀은 LocalDateTime 문자열(예: 2023-03-01T00:00)로 전달됨
+        if (value.length() > 10 && value.charAt(10) == 'T') {
+            return parseIsoDate(value);
+        }
+
+        // 숫자 묶음 (최대 3개)
+        int groupCount = 0;
+        int first = 0, second = 0, third = 0;
+        int firstDigits = 0, secondDigits = 0, thirdDigits = 0;
+        int number = 0;
+        int digits = 0;
+
+        for (int i = 0, length = value.length(); i <= length; i++) {
+            char c = i < length ? value.charAt(i) : '-';
+            if (c >= '0' && c <= '9') {
+                if (digits == 0 && ++groupCount > 3) {
+                    return null;
+                }
+                if (++digits > 4) {
+                    return null;
+                }
+                number = number * 10 + (c - '0');
+            } else if (c == '-' || c == '.' || c == '/' || c == '년' || c == '월') {
+                if (digits == 0) {
+                    if (groupCount == 0 && i < length) {
+                        return null; // 구분자로 시작하는 값
+                    }
+                    continue;
+                }
+                if (groupCount == 1) {
+                    first = number;
+                    firstDigits = digits;
+                } else if (groupCount == 2) {
+                    second = number;
+                    secondDigits = digits;
+                } else {
+                    third = number;
+                    thirdDigits = digits;
+                }
+                number = 0;
+                digits = 0;
+            } else if (c != '일' && c > ' ') {
+                return null;
+            }
+        }
+
+        // 월/일은 1~2자리
+        if (secondDigits > 2 || thirdDigits > 2) {
+            return null;
+        }
+        int year;
+        if (firstDigits == 4) {
+            // YYYY, YYYY-M, YYYY-M-D
+            year = first;
+        } else if (firstDigits == 2 && groupCount <= 2) {
+            // YY, YY-M (현재 세기에 맞춰 연도 해석)
+            int currentYear = LocalDate.now().getYear();
+            int century = currentYear / 100 * 100;
+            if (first > currentYear % 100) {
+                // 입력된 연도가 현재 연도의 뒤 두자리보다 크면 이전 세기로 해석
+                century -= 100;
+            }
+            year = century + first;
+        } else {
+            return null;
+        }
+        int month = groupCount >= 2 ? second : 1;
+        int day = groupCount == 3 ? third : 1;
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            // 날짜 파싱 실패 시 null 반환 (오류 메시지 없이 계속 진행)
+            log.debug("날짜 파싱 오류: {}", value);
+            return null;
+        }
+        return LocalDate.of(year, month, Math.min(day, YearMonth.of(year, month).lengthOfMonth()));
+    }
+
+    // yyyy-MM-dd 로 시작하는 LocalDateTime 문자열의 날짜 부분
+    private static LocalDate parseIsoDate(String value) {
+        int year = digitsAt(value, 0, 4);
+        int month = digitsAt(value, 5, 2);
+        int day = digitsAt(value, 8, 2);
+        if (year < 0 || month < 0 || day < 0 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            log.debug("날짜 파싱 오류: {} - {}", value, e.getMessage());
+            return null;
+        }
+    }
+
+    // 지정한 위치의 숫자 (숫자가 아닌 문자가 있으면 -1)
+    private static int digitsAt(String value, int start, int count) {
+        int number = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    /**
+     * 행 범위를 반으로 나눠 가며 파싱하는 fork-join 작업
+     * 각 행의 결과/오류는 행 위치에 그대로 기록하므로 순서가 유지됩니다.
+     */
+    private static class ParseTask extends RecursiveAction {
+        private final List<String[]> rows;
+        private final int firstRowCount;
+        private final DeviceRow[] parsed;
+        private final IllegalArgumentException[] errors;
+        private final AtomicInteger firstErrorIndex;
+        private final PurchaseDateCache purchaseDates;
+        private final ImportProgress progress;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<String[]> rows, int firstRowCount, DeviceRow[] parsed, IllegalArgumentException[] errors,
+                  AtomicInteger firstErrorIndex, PurchaseDateCache purchaseDates, ImportProgress progress, int from, int to) {
+            this.rows = rows;
+            this.firstRowCount = firstRowCount;
+            this.parsed = parsed;
+            this.errors = errors;
+            this.firstErrorIndex = firstErrorIndex;
+            this.purchaseDates = purchaseDates;
+            this.progress = progress;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(rows, firstRowCount, parsed, errors, firstErrorIndex, purchaseDates, progress, from, mid),
+                        new ParseTask(rows, firstRowCount, parsed, errors, firstErrorIndex, purchaseDates, progress, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                // 앞선 행에서 이미 오류가 났으면 뒤의 행은 파싱할 필요 없음
+                if (i > firstErrorIndex.get()) {
+                    return;
+                }
+                try {
+                    parsed[i] = parse(rows.get(i), firstRowCount + i, purchaseDates);
+                } catch (IllegalArgumentException e) {
+                    errors[i] = e;
+                    firstErrorIndex.accumulateAndGet(i, Math::min);
+                }
+                progress.rowParsed();
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.inet.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 읽은 행을 고정 크기 묶음으로 모아 파싱하고, 파싱한 묶음을 행 순서대로 넘겨주는 행 처리 콜백 (첫 행은 헤더로 건너뜀)
+ * 묶음이 찰 때마다 DeviceRowParser 로 병렬 파싱한 뒤 다음 행을 읽으므로,
+ * 파일 전체를 모으지 않고 한 번에 최대 한 묶음의 행만 메모리에 둡니다.
+ * 파싱 오류가 있으면 그 묶음에서 예외가 나므로 뒤의 행은 읽지 않습니다.
+ * 다 읽은 뒤 {@link #finish()} 를 호출해야 마지막 묶음이 처리됩니다.
+ */
+public class DeviceRowWindowHandler implements ExcelRowHandler {
+
+    // 한 번에 모아서 파싱하는 데이터 행 수
+    public static final int WINDOW_SIZE = 4096;
+
+    private final ImportProgress progress;
+    private final Consumer<List<DeviceRow>> consumer;
+    private final PurchaseDateCache purchaseDates = new PurchaseDateCache();
+
+    private List<String[]> window = new ArrayList<>(WINDOW_SIZE);
+    // 현재 묶음의 첫 행 순번 (헤더를 제외하고 1부터 시작)
+    private int windowStart = 1;
+    private int physicalRows = 0;
+
+    /**
+     * @param progress 진행 상황 콜백
+     * @param consumer 파싱한 묶음을 받을 콜백 (빈 행을 제외한 행, 행 순서대로)
+     */
+    public DeviceRowWindowHandler(ImportProgress progress, Consumer<List<DeviceRow>> consumer) {
+        this.progress = progress;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void handleRow(String[] cells) {
+        physicalRows++;
+        if (physicalRows == 1) {
+            return;
+        }
+        window.add(cells);
+        if (window.size() == WINDOW_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * 남은 행을 파싱해 넘겨줍니다.
+     * @throws IllegalArgumentException 헤더 외에 데이터 행이 없는 경우
+     */
+    public void finish() {
+        flush();
+        if (physicalRows <= 1) {
+            throw new IllegalArgumentException("데이터가 없습니다. 최소한 헤더행과 1개 이상의 데이터행이 필요합니다.");
+        }
+    }
+
+    // 헤더를 포함한 읽은 행 수
+    public int getPhysicalRows() {
+        return physicalRows;
+    }
+
+    private void flush() {
+        if (window.isEmpty()) {
+            return;
+        }
+        List<DeviceRow> parsed = DeviceRowParser.parseAll(window, windowStart, purchaseDates, progress);
+        windowStart += window.size();
+        window = new ArrayList<>(WINDOW_SIZE);
+        if (!parsed.isEmpty()) {
+            consumer.accept(parsed);
+        }
+    }
+}
@@ -11,40 +11,61 @@ import com.inet.repository.ClassroomRepository;
 import com.inet.entity.Manage;
 import com.inet.repository.ManageRepository;
 import com.inet.entity.Operator;
+import com.inet.repository.OperatorRepository;
 import com.inet.service.OperatorService;
 import com.inet.service.ClassroomService;
 import com.inet.entity.Uid;
 import com.inet.service.UidService;
+import com.inet.entity.ImportCheckpoint;
+import com.inet.repository.ImportCheckpointRepository;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.jpa.domain.Specification;
+import com.inet.repository.DeviceFilter;
+import com.inet.repository.DeviceSpecifications;
 import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellStyle;
-import org.apache.poi.ss.usermodel.FillPatternType;
-import org.apache.poi.ss.usermodel.HorizontalAlignment;
-import org.apache.poi.ss.usermodel.IndexedColors;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import java.io.IOException;
 import java.io.OutputStream;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.InputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.Set;
 import java.util.ArrayList;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.Iterator;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 
@@ -58,9 +79,17 @@ public class DeviceService {
     private final SchoolRepository schoolRepository;
     private final ClassroomRepository classroomRepository;
     private final OperatorService operatorService;
+    private final OperatorRepository operatorRepository;
     private final ManageRepository manageRepository;
     private final ClassroomService classroomService;
     private final UidService uidService;
+    private final ImportCheckpointRepository importCheckpointRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final UidCategoryClassifier uidCategoryClassifier;
+    private final ReferenceDataCache referenceDataCache;
+    
+    // 엑셀 업로드 시 읽는 컬럼 수 (UID ~ 비고)
+    private static final int IMPORT_COLUMN_COUNT = 13;
     
     @PersistenceContext
     private EntityManager entityManager;
@@ -110,46 +139,20 @@ public class DeviceService {
         deviceRepository.deleteById(id);
     }
 
-    // 페이징 + 학교 + 타입 + 교실 조건 검색
-    public Page<Device> getDevices(Long schoolId, String type, Long classroomId, Pageable pageable) {
-        if (schoolId != null && type != null && !type.isEmpty() && classroomId != null) {
-            School school = schoolRepository.findById(schoolId)
-                .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-            Classroom classroom = classroomRepository.findById(classroomId)
-                .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-            return deviceRepository.findBySchoolAndTypeAndClassroom(school, type, classroom, pageable);
-        } else if (schoolId != null && type != null && !type.isEmpty()) {
-            School school = schoolRepository.findById(schoolId)
-                .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-            return deviceRepository.findBySchoolAndType(school, type, pageable);
-        } else if (schoolId != null && classroomId != null) {
-            School school = schoolRepository.findById(schoolId)
-                .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-            Classroom classroom = classroomRepository.findById(classroomId)
-                .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-            return deviceRepository.findBySchoolAndClassroom(school, classroom, pageable);
-        } else if (schoolId != null) {
-            School school = schoolRepository.findById(schoolId)
-                .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-            return deviceRepository.findBySchool(school, pageable);
-        } else if (type != null && !type.isEmpty()) {
-            return deviceRepository.findByType(type, pageable);
-        } else if (classroomId != null) {
-            Classroom classroom = classroomRepository.findById(classroomId)
-                .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-            return deviceRepository.findByClassroom(classroom, pageable);
-        } else {
-            return deviceRepository.findAll(pageable);
-        }
+    // 페이징 + 조건 검색 (학교/교실/취급자는 외래 키 값으로 바로 비교)
+    public Page<Device> getDevices(DeviceFilter filter, Pageable pageable) {
+        return deviceRepository.findAll(DeviceSpecifications.matching(filter), pageable);
     }
 
-    // type 목록 조회
+    // type 목록 조회 (기준 데이터 캐시 사용 - 장비가 바뀌면 캐시가 지워짐)
     public List<String> getAllTypes() {
-        return deviceRepository.findDistinctTypes();
+        return referenceDataCache.getDeviceTypes(deviceRepository::findDistinctTypes);
     }
 
-    public List<Device> findBySchool(Long schoolId) {
-        return deviceRepository.findBySchoolSchoolId(schoolId);
+    // 배치도 화면용 장비 목록 (엔티티 대신 필요한 값만 조회)
+    @Transactional(readOnly = true)
+    public List<DeviceMapItem> getMapItems(Long schoolId) {
+        return deviceRepository.findMapItemsBySchoolId(schoolId);
     }
 
     public List<Device> findByType(String type) {
@@ -164,226 +167,220 @@ public class DeviceService {
         return deviceRepository.findAll();
     }
 
-    public void exportToExcel(List<Device> devices, OutputStream outputStream) throws IOException {
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("장비 목록");
-        
-        // 1. 제목 스타일 (학교명 + 교실배치별 장비현황)
-        CellStyle titleStyle = workbook.createCellStyle();
-        Font titleFont = workbook.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeightInPoints((short) 14);
-        titleStyle.setFont(titleFont);
-        titleStyle.setAlignment(HorizontalAlignment.CENTER);
-        
-        // 2. 날짜 스타일
-        CellStyle dateStyle = workbook.createCellStyle();
-        dateStyle.setAlignment(HorizontalAlignment.RIGHT);
-        Font dateFont = workbook.createFont();
-        dateFont.setBold(true);
-        dateStyle.setFont(dateFont);
-        
-        // 3. 헤더 스타일
-        CellStyle headerStyle = workbook.createCellStyle();
-        headerStyle.setAlignment(HorizontalAlignment.CENTER);
-        Font headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-        
-        // 4. 데이터 스타일
-        CellStyle dataStyle = workbook.createCellStyle();
-        dataStyle.setBorderTop(BorderStyle.THIN);
-        dataStyle.setBorderBottom(BorderStyle.THIN);
-        dataStyle.setBorderLeft(BorderStyle.THIN);
-        dataStyle.setBorderRight(BorderStyle.THIN);
-        
-        // 학교명 가져오기 - 첫 번째 장비의 학교명 사용 (또는 선택된 학교명)
-        String schoolName = "학교";
-        if (!devices.isEmpty() && devices.get(0).getSchool() != null && devices.get(0).getSchool().getSchoolName() != null) {
-            schoolName = devices.get(0).getSchool().getSchoolName();
-        }
-        
-        // 현재 날짜 (작성일자)
-        String today = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        
-        // 첫번째 행: 제목 (학교명 + 교실배치별 장비현황)
-        Row titleRow = sheet.createRow(0);
-        Cell titleCell = titleRow.createCell(0);
-        titleCell.setCellValue(schoolName + " 교실배치별 장비현황");
-        titleCell.setCellStyle(titleStyle);
-        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 13)); // A1:N1 (비고 컬럼까지 병합)
-        
-        // 두번째 행: 작성일자
-        Row dateRow = sheet.createRow(1);
-        Cell dateCell = dateRow.createCell(12); // M2 셀
-        dateCell.setCellValue("작성일자");
-        dateCell.setCellStyle(dateStyle);
-        
-        Cell todayCell = dateRow.createCell(13); // N2 셀
-        todayCell.setCellValue(today);
-        todayCell.setCellStyle(dateStyle);
-        
-        // 세번째 행: 헤더
-        Row headerRow = sheet.createRow(2);
-        String[] headers = {"No", "고유번호", "관리번호", "종류", "직위", "취급자", "제조사", "모델명", "도입일자", "현IP주소", "설치장소", "용도", "세트분류", "비고"};
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(headerStyle);
-        }
+    /**
+     * 조건에 맞는 장비를 DB 에서 출력 순서대로 스트리밍으로 읽으면서 바로 엑셀 파일로 출력합니다.
+     * 장비 목록 전체를 메모리에 올리지 않고, 작성한 장비는 영속성 컨텍스트에서 바로 분리합니다.
+     * @param schoolId 학교 ID (null 이면 전체)
+     * @param type 장비 타입 (null 이면 전체)
+     * @param classroomId 교실 ID (null 이면 전체)
+     * @param outputStream 출력 스트림
+     * @param progress 진행 상황 콜백
+     * @return 출력한 장비 수
+     */
+    @Transactional(readOnly = true)
+    public int exportToExcel(Long schoolId, String type, Long classroomId, OutputStream outputStream,
+                             ExportProgress progress) throws IOException {
+        try (Stream<Device> stream = deviceRepository.streamForExport(schoolId, type, classroomId)) {
+            Iterator<Device> devices = stream.iterator();
+            Device first = devices.hasNext() ? devices.next() : null;
 
-        // 데이터 행 추가
-        int rowNum = 3; // 4번째 행부터 데이터 시작
-        
-        // 교실, 세트 타입, 담당자 순으로 정렬된 데이터 추가
-        for (int i = 0; i < devices.size(); i++) {
-            Device device = devices.get(i);
-            Row row = sheet.createRow(rowNum++);
-            
-            // 각 열에 데이터 추가 및 스타일 적용
-            for (int col = 0; col < 14; col++) {
-                Cell cell = row.createCell(col);
-                cell.setCellStyle(dataStyle);
-                
-                // 각 열의 데이터 설정
-                switch (col) {
-                    case 0: // No (순번)
-                        cell.setCellValue(i + 1);
-                        break;
-                    case 1: // 고유번호
-                        cell.setCellValue(device.getUid() != null ? device.getUid().getCate() + device.getUid().getIdNumber() : "");
-                        break;
-                    case 2: // 관리번호
-                        String manageNo = "";
-                        Manage manage = device.getManage();
-                        if (manage != null) {
-                            String cate = manage.getManageCate() != null ? manage.getManageCate() : "";
-                            String year = manage.getYear() != null ? manage.getYear().toString() : "";
-                            String num = manage.getManageNum() != null ? manage.getManageNum().toString() : "";
-                            manageNo = (cate + (year.isEmpty() ? "" : ("-" + year)) + (num.isEmpty() ? "" : ("-" + num))).replaceAll("-$", "");
-                        }
-                        cell.setCellValue(manageNo);
-                        break;
-                    case 3: // 종류
-                        cell.setCellValue(device.getType() != null ? device.getType() : "");
-                        break;
-                    case 4: // 직위
-                        cell.setCellValue(device.getOperator() != null && device.getOperator().getPosition() != null ? device.getOperator().getPosition() : "");
-                        break;
-                    case 5: // 취급자
-                        cell.setCellValue(device.getOperator() != null && device.getOperator().getName() != null ? device.getOperator().getName() : "");
-                        break;
-                    case 6: // 제조사
-                        cell.setCellValue(device.getManufacturer() != null ? device.getManufacturer() : "");
-                        break;
-                    case 7: // 모델명
-                        cell.setCellValue(device.getModelName() != null ? device.getModelName() : "");
-                        break;
-                    case 8: // 도입일자
-                        cell.setCellValue(device.getPurchaseDate() != null ? device.getPurchaseDate().toString() : "");
-                        break;
-                    case 9: // 현IP주소
-                        cell.setCellValue(device.getIpAddress() != null ? device.getIpAddress() : "");
-                        break;
-                    case 10: // 설치장소
-                        cell.setCellValue(device.getClassroom() != null && device.getClassroom().getRoomName() != null ? device.getClassroom().getRoomName() : "");
-                        break;
-                    case 11: // 용도
-                        cell.setCellValue(device.getPurpose() != null ? device.getPurpose() : "");
-                        break;
-                    case 12: // 세트분류
-                        cell.setCellValue(device.getSetType() != null ? device.getSetType() : "");
-                        break;
-                    case 13: // 비고
-                        cell.setCellValue(device.getNote() != null ? device.getNote() : "");
-                        break;
-                }
+            // 학교명 가져오기 - 첫 번째 장비의 학교명 사용
+            String schoolName = "학교";
+            if (first != null && first.getSchool() != null && first.getSchool().getSchoolName() != null) {
+                schoolName = first.getSchool().getSchoolName();
+            }
+
+            try (DeviceExcelWriter writer = new DeviceExcelWriter()) {
+                DeviceExcelWriter.SchoolSheet sheet = writer.createSheet("장비 목록", schoolName);
+                int count = writeDevices(first, devices, sheet, progress);
+                writer.write(outputStream);
+                log.info("엑셀 출력 완료: {}개 장비", count);
+                return count;
             }
         }
+    }
 
-        // 컬럼 너비 조정
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-            // 최소 너비 보장
-            int currentWidth = sheet.getColumnWidth(i);
-            if (currentWidth < 3000) {
-                sheet.setColumnWidth(i, 3000);
+    /**
+     * 학교의 장비를 DB 에서 출력 순서대로 스트리밍으로 읽으면서 엑셀 셀 값으로 넘겨줍니다.
+     * 셀 값은 읽는 트랜잭션 안에서 만들므로 시트 작성은 다른 스레드에서 할 수 있습니다.
+     * 전체 학교 출력(워크북 하나)에서 학교마다 다른 스레드가 별도 트랜잭션으로 호출합니다.
+     * @param schoolId 학교 ID
+     * @param consumer 장비 한 대의 셀 값을 받을 콜백 ({@link DeviceExcelWriter.SchoolSheet#writeValues(String[])} 형식)
+     * @return 읽은 장비 수
+     */
+    @Transactional(readOnly = true)
+    public int readSchoolSheetValues(Long schoolId, Consumer<String[]> consumer) {
+        int count = 0;
+        try (Stream<Device> stream = deviceRepository.streamForExport(schoolId, null, null)) {
+            Iterator<Device> devices = stream.iterator();
+            while (devices.hasNext()) {
+                Device device = devices.next();
+                consumer.accept(DeviceExcelWriter.cellValues(device));
+                detachExported(device);
+                count++;
             }
         }
+        return count;
+    }
 
-        // 첫 번째 컬럼(No)은 좁게 설정
-        sheet.setColumnWidth(0, 1500);
-        
-        // 비고 컬럼(13번째)에 자동 줄바꿈 설정
-        CellStyle wrappingStyle = workbook.createCellStyle();
-        wrappingStyle.cloneStyleFrom(dataStyle);
-        wrappingStyle.setWrapText(true);
-        
-        // 비고 컬럼에 줄바꿈 스타일 적용
-        for (int i = 3; i < rowNum; i++) {
-            Row row = sheet.getRow(i);
-            if (row != null) {
-                Cell noteCell = row.getCell(13);
-                if (noteCell != null) {
-                    // 기존 텍스트 가져오기
-                    String noteText = noteCell.getStringCellValue();
-                    // 15자마다 줄바꿈 처리
-                    if (noteText != null && noteText.length() > 15) {
-                        noteCell.setCellStyle(wrappingStyle);
-                    }
-                }
+    /**
+     * 학교의 장비를 DB 에서 출력 순서대로 스트리밍으로 읽으면서 시트에 작성합니다.
+     * 전체 학교 출력(학교별 파일)에서 학교마다 다른 스레드가 자기 워크북에 별도 트랜잭션으로 호출합니다.
+     * @param schoolId 학교 ID
+     * @param sheet 작성할 시트
+     * @param progress 진행 상황 콜백
+     * @return 작성한 장비 수
+     */
+    @Transactional(readOnly = true)
+    public int writeSchoolSheet(Long schoolId, DeviceExcelWriter.SchoolSheet sheet, ExportProgress progress) {
+        try (Stream<Device> stream = deviceRepository.streamForExport(schoolId, null, null)) {
+            Iterator<Device> devices = stream.iterator();
+            return writeDevices(devices.hasNext() ? devices.next() : null, devices, sheet, progress);
+        }
+    }
+
+    private int writeDevices(Device first, Iterator<Device> rest, DeviceExcelWriter.SchoolSheet sheet,
+                             ExportProgress progress) {
+        Device device = first;
+        while (device != null) {
+            sheet.writeDevice(device);
+            detachExported(device);
+            progress.rowsWritten(1);
+            device = rest.hasNext() ? rest.next() : null;
+        }
+        return sheet.getDeviceCount();
+    }
+
+    /**
+     * 조건에 맞는 장비를 DB 커서로 출력 순서대로 읽으면서 바로 CSV/NDJSON 으로 출력합니다.
+     * 엔티티 대신 펼친 값으로 조회하므로 영속성 컨텍스트에 쌓이지 않습니다.
+     * @param schoolId 학교 ID (null 이면 전체)
+     * @param type 장비 타입 (null 이면 전체)
+     * @param classroomId 교실 ID (null 이면 전체)
+     * @param writer 행 작성기
+     * @param progress 진행 상황 콜백
+     * @return 출력한 장비 수
+     */
+    @Transactional(readOnly = true)
+    public int exportRows(Long schoolId, String type, Long classroomId, DeviceExportRowWriter writer,
+                          ExportProgress progress) throws IOException {
+        try (Stream<DeviceExportRow> stream = deviceRepository.streamExportRows(schoolId, type, classroomId)) {
+            Iterator<DeviceExportRow> rows = stream.iterator();
+            while (rows.hasNext()) {
+                writer.write(rows.next());
+                progress.rowsWritten(1);
             }
         }
+        log.info("장비 데이터 출력 완료: {}개 장비", writer.getRowCount());
+        return writer.getRowCount();
+    }
 
-        workbook.write(outputStream);
-        workbook.close();
+    /**
+     * 조건에 맞는 장비 수를 셉니다. (목록 화면 페이지 수, 출력 작업 진행률 계산용)
+     */
+    @Transactional(readOnly = true)
+    public long countFiltered(DeviceFilter filter) {
+        return deviceRepository.count(DeviceSpecifications.matching(filter));
     }
 
-    public List<Device> findByClassroomRoomName(String roomName) {
-        return deviceRepository.findByClassroomRoomName(roomName);
+    /**
+     * 장비 목록 화면의 한 페이지를 조회합니다.
+     * 정렬(설치장소 → 세트분류가 있는 장비 먼저 → 세트분류 → 취급자)과 페이징을 DB 에서 처리하고,
+     * 해당 페이지의 장비만 연관 엔티티와 함께 읽습니다.
+     * 이전 페이지의 마지막 장비 ID 를 주면 그 장비의 정렬 키 다음부터 읽으므로 앞 페이지들을 건너뛰지 않습니다.
+     * @param filter 조회 조건
+     * @param pageable 페이지 번호(0부터)와 크기
+     * @param afterDeviceId 이전 페이지의 마지막 장비 ID (없거나 찾을 수 없으면 페이지 번호로 조회)
+     * @return 장비 페이지
+     */
+    @Transactional(readOnly = true)
+    public Page<Device> getListPage(DeviceFilter filter, Pageable pageable, Long afterDeviceId) {
+        Specification<Device> spec = DeviceSpecifications.matching(filter);
+        List<Long> ids = deviceRepository.findListPageIds(spec, afterDeviceId, pageable.getOffset(), pageable.getPageSize());
+
+        // IN 조회는 순서를 보장하지 않으므로 ID 순서대로 다시 배치
+        Map<Long, Device> devicesById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Device device : deviceRepository.findWithAssociationsByIdIn(ids)) {
+                devicesById.put(device.getDeviceId(), device);
+            }
+        }
+        List<Device> devices = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Device device = devicesById.get(id);
+            if (device != null) {
+                devices.add(device);
+            }
+        }
+        return new PageImpl<>(devices, pageable, deviceRepository.count(spec));
     }
 
-    public List<Device> findBySchoolId(Long schoolId) {
-        return deviceRepository.findBySchoolSchoolId(schoolId);
+    // 출력한 장비와 장비마다 하나씩인 고유번호/관리번호를 영속성 컨텍스트에서 분리 (교실/취급자/학교는 여러 장비가 공유)
+    private void detachExported(Device device) {
+        entityManager.detach(device);
+        if (device.getUid() != null) {
+            entityManager.detach(device.getUid());
+        }
+        if (device.getManage() != null) {
+            entityManager.detach(device.getManage());
+        }
     }
 
-    public List<Device> findBySchoolAndTypeAndClassroom(Long schoolId, String type, Long classroomId) {
-        School school = schoolRepository.findById(schoolId)
-            .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-        Classroom classroom = classroomRepository.findById(classroomId)
-            .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-        return deviceRepository.findBySchoolAndTypeAndClassroom(school, type, classroom);
+    /**
+     * 장비 목록을 엑셀 파일로 출력합니다.
+     * SXSSF 스트리밍 방식으로 작성하므로 장비 수가 많아도 메모리 사용량이 일정합니다.
+     * @param devices 출력할 장비 (출력 순서대로 정렬된 목록)
+     * @param outputStream 출력 스트림
+     */
+    public void exportToExcel(List<Device> devices, OutputStream outputStream) throws IOException {
+        // 학교명 가져오기 - 첫 번째 장비의 학교명 사용 (또는 선택된 학교명)
+        String schoolName = "학교";
+        if (!devices.isEmpty() && devices.get(0).getSchool() != null && devices.get(0).getSchool().getSchoolName() != null) {
+            schoolName = devices.get(0).getSchool().getSchoolName();
+        }
+
+        try (DeviceExcelWriter writer = new DeviceExcelWriter()) {
+            DeviceExcelWriter.SchoolSheet sheet = writer.createSheet("장비 목록", schoolName);
+            for (Device device : devices) {
+                sheet.writeDevice(device);
+            }
+            writer.write(outputStream);
+        }
     }
 
-    public List<Device> findBySchoolAndClassroom(Long schoolId, Long classroomId) {
-        School school = schoolRepository.findById(schoolId)
-            .orElseThrow(() -> new RuntimeException("School not found with id: " + schoolId));
-        Classroom classroom = classroomRepository.findById(classroomId)
-            .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-        return deviceRepository.findBySchoolAndClassroom(school, classroom);
+    public List<Device> findByClassroomRoomName(String roomName) {
+        return deviceRepository.findByClassroomRoomName(roomName);
     }
 
-    public List<Device> findByClassroom(Long classroomId) {
-        Classroom classroom = classroomRepository.findById(classroomId)
-            .orElseThrow(() -> new RuntimeException("Classroom not found with id: " + classroomId));
-        return deviceRepository.findByClassroom(classroom);
+    public List<Device> findBySchoolId(Long schoolId) {
+        return deviceRepository.findBySchoolSchoolId(schoolId);
     }
 
     @Transactional
     public void saveDevicesFromExcel(MultipartFile file, Long schoolId) throws Exception {
+        validateUploadFile(file);
+        
+        Path tempFile = copyToTempFile(file);
+        try {
+            importDevices(tempFile.toFile(), schoolId, ImportProgress.NONE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 업로드 파일의 형식과 내용을 검증합니다.
+     * @param file 업로드 파일
+     */
+    public void validateUploadFile(MultipartFile file) {
         // 파일 확장자 검증
         String originalFilename = file.getOriginalFilename();
         System.out.println("엑셀 파일 업로드 시작: " + originalFilename);
         
-        if (originalFilename == null || !(originalFilename.endsWith(".xls") || originalFilename.endsWith(".xlsx"))) {
+        if (originalFilename == null || !(originalFilename.endsWith(".xls") || originalFilename.endsWith(".xlsx")
+                || DelimitedTextReader.supports(originalFilename))) {
             System.out.println("잘못된 파일 형식: " + originalFilename);
-            throw new IllegalArgumentException("엑셀 파일(.xls 또는 .xlsx)만 업로드 가능합니다.");
+            throw new IllegalArgumentException("엑셀 파일(.xls, .xlsx) 또는 CSV 파일(.csv, .tsv)만 업로드 가능합니다.");
         }
 
         // 파일 내용 검증
@@ -391,7 +388,50 @@ public class DeviceService {
             System.out.println("빈 파일입니다: " + originalFilename);
             throw new IllegalArgumentException("빈 파일입니다. 내용이 있는 엑셀 파일을 업로드해주세요.");
         }
+    }
+
+    /**
+     * 업로드 파일을 임시 파일로 복사합니다.
+     * 스트리밍 리더는 파일 단위로 동작하고, 비동기 업로드 작업은 요청이 끝난 뒤에 파일을 읽기 때문입니다.
+     * 사용한 임시 파일은 호출한 쪽에서 삭제해야 합니다.
+     * @param file 업로드 파일
+     * @return 임시 파일 경로
+     */
+    public Path copyToTempFile(MultipartFile file) throws IOException {
+        String originalFilename = file.getOriginalFilename();
+        String suffix = originalFilename != null && originalFilename.lastIndexOf('.') >= 0
+                ? originalFilename.substring(originalFilename.lastIndexOf('.'))
+                : ".tmp";
+        Path tempFile = Files.createTempFile("device-upload-", suffix);
+        try (InputStream is = file.getInputStream()) {
+            Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+
+    /**
+     * 임시 파일로 저장된 엑셀 파일에서 장비를 일괄 등록합니다.
+     * @param file 엑셀 파일
+     * @param schoolId 학교 ID
+     * @param progress 진행 상황을 전달받을 콜백
+     */
+    @Transactional
+    public void importDevices(File file, Long schoolId, ImportProgress progress) throws IOException {
+        importDevices(file, 0, schoolId, progress);
+    }
 
+    /**
+     * 임시 파일로 저장된 엑셀 파일의 지정한 시트에서 장비를 일괄 등록합니다.
+     * @param file 엑셀 파일
+     * @param sheetIndex 읽을 시트 순번 (0부터 시작)
+     * @param schoolId 학교 ID
+     * @param progress 진행 상황을 전달받을 콜백
+     */
+    @Transactional
+    public void importDevices(File file, int sheetIndex, Long schoolId, ImportProgress progress) throws IOException {
         School school = schoolRepository.findById(schoolId)
                 .orElseThrow(() -> {
                     System.out.println("학교를 찾을 수 없음. 학교 ID: " + schoolId);
@@ -400,384 +440,586 @@ public class DeviceService {
         
         System.out.println("학교 정보: ID=" + school.getSchoolId() + ", 이름=" + school.getSchoolName());
         
-        List<Device> devices = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            boolean first = true;
-            int rowCount = 0;
-            
-            System.out.println("총 행 수: " + sheet.getPhysicalNumberOfRows());
-            
-            // 시트에 데이터가 없는 경우 확인
-            if (sheet.getPhysicalNumberOfRows() <= 1) {
-                System.out.println("데이터가 없는 엑셀 파일입니다");
-                throw new IllegalArgumentException("데이터가 없습니다. 최소한 헤더행과 1개 이상의 데이터행이 필요합니다.");
+        importDevicesFromFile(file, sheetIndex, school, progress);
+        
+        // 메서드 끝에 추가 (return 문 바로 앞에)
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * 엑셀 파일의 장비를 chunkSize 행씩 나눠 커밋하며 등록합니다.
+     * 파일을 읽으면서 행을 chunkSize 개씩 모아 묶음마다 별도 트랜잭션으로 저장하고 영속성 컨텍스트를 비우므로
+     * 행 수와 관계없이 메모리 사용량이 일정하며, 커밋할 때마다 (학교, 파일 해시)별 진행 지점을 같은 트랜잭션에 기록합니다.
+     * 중간에 실패한 경우 같은 파일을 다시 올리면 마지막으로 커밋된 행 다음부터 이어서 등록합니다.
+     * 셀 값 검증은 저장 전에 파일 전체를 한 번 읽으며 먼저 하므로, 형식 오류가 있는 파일은 아무것도 저장되지 않습니다.
+     * 취급자/관리번호/교실 조회 컨텍스트는 업로드마다 한 번만 만들고, 묶음에서 저장한 항목으로 갱신하며 계속 사용합니다.
+     * @param file 엑셀 파일
+     * @param schoolId 학교 ID
+     * @param filename 원본 파일명 (진행 지점 기록용)
+     * @param chunkSize 한 트랜잭션에서 저장할 데이터 행 수
+     * @param progress 진행 상황을 전달받을 콜백
+     * @return 이전 업로드에서 이미 커밋되어 건너뛴 마지막 데이터 행 순번 (처음부터 등록했으면 0)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int importDevicesInChunks(File file, Long schoolId, String filename, int chunkSize, ImportProgress progress) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize 는 1 이상이어야 합니다: " + chunkSize);
+        }
+        School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> {
+                    log.warn("학교를 찾을 수 없음. 학교 ID: {}", schoolId);
+                    return new IllegalArgumentException("학교를 찾을 수 없습니다.");
+                });
+        
+        // 1단계: 저장 전에 파일 전체의 셀 값을 검증 (파싱 결과는 버리고 행 수만 셈)
+        int[] parsedCount = {0};
+        DeviceRowWindowHandler validated = readParsedRows(file, 0, progress, rows -> parsedCount[0] += rows.size());
+        int totalRows = validated.getPhysicalRows() - 1;
+        log.info("파싱 완료: {}개 데이터 행", parsedCount[0]);
+        
+        // 같은 파일의 이전 진행 지점이 있으면 그 다음 행부터 등록
+        String fileHash = sha256(file);
+        int resumeAfter = importCheckpointRepository.findBySchoolIdAndFileHash(schoolId, fileHash)
+                .map(ImportCheckpoint::getLastCommittedRow)
+                .orElse(0);
+        if (resumeAfter > 0) {
+            log.info("이전 업로드 진행 지점에서 이어서 등록: {}번째 행까지 저장됨", resumeAfter + 1);
+        }
+        
+        // 2단계: 다시 읽으면서 chunkSize 행이 모일 때마다 커밋 (파싱 진행률은 1단계에서 이미 보고함)
+        ImportResolutionContext context = new ImportResolutionContext(school, operatorRepository, manageRepository, classroomRepository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<DeviceRow> pending = new ArrayList<>(chunkSize);
+        readParsedRows(file, 0, ImportProgress.NONE, rows -> {
+            for (DeviceRow row : rows) {
+                if (row.getRowCount() <= resumeAfter) {
+                    continue;
+                }
+                pending.add(row);
+                if (pending.size() == chunkSize) {
+                    commitChunk(pending, context, schoolId, fileHash, filename, totalRows, transactionTemplate, progress);
+                    pending.clear();
+                }
             }
+        });
+        if (!pending.isEmpty()) {
+            commitChunk(pending, context, schoolId, fileHash, filename, totalRows, transactionTemplate, progress);
+        }
+        
+        // 끝까지 등록했으면 진행 지점 삭제 (같은 파일을 다시 올리면 새로 등록)
+        transactionTemplate.executeWithoutResult(status ->
+                importCheckpointRepository.findBySchoolIdAndFileHash(schoolId, fileHash)
+                        .ifPresent(importCheckpointRepository::delete));
+        return resumeAfter;
+    }
+
+    // 행 묶음 하나를 별도 트랜잭션으로 저장하고 진행 지점을 기록
+    private void commitChunk(List<DeviceRow> chunk, ImportResolutionContext context, Long schoolId, String fileHash,
+                             String filename, int totalRows, TransactionTemplate transactionTemplate, ImportProgress progress) {
+        int lastRow = chunk.get(chunk.size() - 1).getRowCount();
+        Integer savedCount = transactionTemplate.execute(status -> {
+            int saved = persistRows(chunk, context, progress);
+            saveCheckpoint(schoolId, fileHash, filename, lastRow, totalRows);
             
-            for (Row row : sheet) {
-                if (first) { 
-                    first = false; 
-                    System.out.println("헤더 행 처리 완료");
-                    continue; 
-                } 
-                rowCount++;
-                
-                try {
-                    System.out.println((rowCount + 1) + "번째 행 처리 시작");
-                    
-                    // 빈 행 체크 - 타입(3번째 컬럼)이 비어있으면 스킵
-                    if (isEmptyRow(row)) {
-                        System.out.println((rowCount + 1) + "번째 행은 빈 행이므로 스킵합니다");
-                        continue;
-                    }
-                    
-                    // UID 정보 처리 (첫 번째 컬럼)
-                    String uidInfo = null;
-                    try {
-                        uidInfo = getCellString(row.getCell(0));
-                        System.out.println((rowCount + 1) + "번째 행 UID 정보: " + uidInfo);
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 UID 정보 처리 중 오류: " + e.getMessage());
-                    }
-                    
-                    String uidCate = null;
-                    
-                    // 관리번호는 두 번째 컬럼(1)
-                    String manageNo = null;
-                    try {
-                        manageNo = getCellString(row.getCell(1));
-                        System.out.println((rowCount + 1) + "번째 행 관리번호: " + manageNo);
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 관리번호 처리 중 오류: " + e.getMessage());
-                    }
-                    
-                    // Manage 엔티티 조회/생성 (관리번호가 없으면 null)
-                    Manage manage = null;
-                    if (manageNo != null && !manageNo.trim().isEmpty()) {
-                        try {
-                            ManageNumber mn = parseManageNo(manageNo);
-                            System.out.println((rowCount + 1) + "번째 행 관리번호 파싱 결과: 카테고리=" + 
-                                    mn.manageCate + ", 연도=" + mn.year + ", 번호=" + mn.manageNum);
-                            
-                            manage = manageRepository.findByManageCateAndYearAndManageNum(mn.manageCate, mn.year, mn.manageNum)
-                                .map(existingManage -> {
-                                    // 이미 존재하는 Manage 엔티티인 경우 학교 정보 업데이트
-                                    if (existingManage.getSchool() == null) {
-                                        existingManage.setSchool(school);
-                                        return manageRepository.save(existingManage);
-                                    }
-                                    return existingManage;
-                                })
-                                .orElseGet(() -> {
-                                    // 새로운 Manage 엔티티 생성
-                                    Manage m = new Manage();
-                                    m.setManageCate(mn.manageCate);
-                                    m.setYear(mn.year);
-                                    m.setManageNum(mn.manageNum);
-                                    m.setSchool(school); // 학교 정보 설정
-                                    return manageRepository.save(m);
-                                });
-                            
-                            System.out.println((rowCount + 1) + "번째 행 Manage 엔티티 처리 완료: ID=" + manage.getManageId());
-                        } catch (Exception e) {
-                            System.out.println((rowCount + 1) + "번째 행 관리번호 형식 오류: " + manageNo + ", " + e.getMessage());
-                            // 특정 행의 관리번호 오류를 알림
-                            throw new IllegalArgumentException((rowCount+1) + "번째 행의 관리번호 형식이 잘못되었습니다: " + manageNo);
-                        }
-                    }
-                    
-                    // 타입 정보 (세 번째 컬럼)
-                    String type = null;
-                    try {
-                        type = getCellString(row.getCell(2));
-                        System.out.println((rowCount + 1) + "번째 행 장비 타입: " + type);
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 장비 타입 처리 중 오류: " + e.getMessage());
-                    }
-                    
-                    // 유효한 타입이 없으면 구체적인 오류 메시지와 함께 예외 발생
-                    if (type == null || type.trim().isEmpty()) {
-                        System.out.println((rowCount + 1) + "번째 행 장비 타입 누락");
-                        throw new IllegalArgumentException((rowCount+1) + "번째 행에 장비 타입이 없습니다. 장비 타입은 필수 값입니다.");
-                    }
-                    
-                    // 취급자 정보 (4번째와 5번째 컬럼)
-                    final String operatorPosition = getCellString(row.getCell(3)); // 직위
-                    final String operatorName = getCellString(row.getCell(4)); // 취급자
-                    Operator operator = null;
-                    
-                    try {
-                        if (operatorName != null && !operatorName.isEmpty() && 
-                            operatorPosition != null && !operatorPosition.isEmpty()) {
-                            operator = operatorService.findByNameAndPositionAndSchool(operatorName, operatorPosition, school)
-                                .orElseGet(() -> {
-                                    Operator op = new Operator();
-                                    op.setName(operatorName);
-                                    op.setPosition(operatorPosition);
-                                    op.setSchool(school);
-                                    return operatorService.saveOperator(op);
-                                });
-                            System.out.println((rowCount + 1) + "번째 행 취급자 정보: " + operatorName + " (" + operatorPosition + ")");
-                        }
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 취급자 정보 처리 중 오류: " + e.getMessage());
-                        // 취급자 정보는 선택사항이므로 오류가 있어도 진행
-                    }
-                    
-                    // 기타 정보
-                    String manufacturer = null;
-                    String modelName = null;
-                    LocalDate purchaseDate = null;
-                    String ipAddress = null;
-                    
-                    try {
-                        manufacturer = getCellString(row.getCell(5));
-                        modelName = getCellString(row.getCell(6));
-                        
-                        Cell dateCell = row.getCell(7); // 도입일자 컬럼
-                        if (dateCell != null && dateCell.getCellType() != CellType.BLANK) {
-                            purchaseDate = parseLocalDate(dateCell);
-                            System.out.println((rowCount + 1) + "번째 행 도입일자 파싱 결과: " + purchaseDate);
-                        }
-                        
-                        ipAddress = getCellString(row.getCell(8));
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 기타 정보 처리 중 오류: " + e.getMessage());
-                        // 선택적 정보이므로 진행
-                    }
-                    
-                    // 교실 처리 (필수 항목)
-                    String classroomName = null;
-                    Classroom classroom = null;
-                    
-                    try {
-                        classroomName = getCellString(row.getCell(9));
-                        System.out.println((rowCount + 1) + "번째 행 설치장소(교실): " + classroomName);
-                        
-                        if (classroomName == null || classroomName.isBlank()) {
-                            System.out.println((rowCount + 1) + "번째 행 설치장소(교실) 누락");
-                            throw new IllegalArgumentException((rowCount+1) + "번째 행에 설치장소(교실)가 지정되지 않았습니다. 설치장소는 필수 항목입니다.");
-                        }
-                        
-                        classroom = classroomService.findByRoomName(classroomName.trim());
-                        if (classroom == null) {
-                            classroom = new Classroom();
-                            classroom.setRoomName(classroomName.trim());
-                            classroom.setSchool(school);
-                            classroom.setXCoordinate(0);
-                            classroom.setYCoordinate(0);
-                            classroom.setWidth(100);
-                            classroom.setHeight(100);
-                            classroom = classroomService.saveClassroom(classroom);
-                            System.out.println((rowCount + 1) + "번째 행 새 교실 생성: " + classroomName);
-                        } else {
-                            System.out.println((rowCount + 1) + "번째 행 기존 교실 사용: " + classroomName);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        throw e; // 이미 구체적인 오류 메시지가 있는 예외는 그대로 던짐
-                    } catch (Exception e) {
-                        System.out.println((rowCount + 1) + "번째 행 교실 처리 중 예외 발생: " + e.getMessage());
-                        throw new IllegalArgumentException((rowCount+1) + "번째 행 교실 처리 중 오류가 발생했습니다: " + e.getMessage());
-                    }
-                    
-                    // 기타 옵션 필드
-                    String purpose = getCellString(row.getCell(10));
-                    String setType = getCellString(row.getCell(11));
-                    String note = getCellString(row.getCell(12));
-                    
-                    // UID 카테고리 결정 로직
-                    if (uidInfo == null || uidInfo.trim().isEmpty()) {
-                        // UID 정보가 비어있을 경우 자동 생성
-                        if (type != null && !type.trim().isEmpty()) {
-                            if ("데스크톱".equals(type)) {
-                                // 데스크톱의 경우 manageCate에 따라 UID 카테고리 결정
-                                if (manage != null && manage.getManageCate() != null) {
-                                    String manageCate = manage.getManageCate();
-                                    switch (manageCate) {
-                                        case "업무":
-                                            uidCate = "DW";
-                                            break;
-                                        case "교육":
-                                            uidCate = "DE";
-                                            break;
-                                        case "기타":
-                                            uidCate = "DK";
-                                            break;
-                                        case "컴퓨터교육":
-                                            uidCate = "DC";
-                                            break;
-                                        case "학교구매":
-                                            uidCate = "DS";
-                                            break;
-                                        case "기증품":
-                                            uidCate = "DD";
-                                            break;
-                                        default:
-                                            uidCate = "DW"; // 기본값
-                                            break;
-                                    }
-                                } else {
-                                    uidCate = "DW"; // 관리번호가 없는 경우 기본값
-                                }
-                            } else {
-                                // 다른 장비 타입에 따라 UID 카테고리 결정
-                                switch (type) {
-                                    case "모니터":
-                                        uidCate = "MO";
-                                        break;
-                                    case "프린터":
-                                        uidCate = "PR";
-                                        break;
-                                    case "TV":
-                                        uidCate = "TV";
-                                        break;
-                                    case "전자칠판":
-                                        uidCate = "ID"; // IE에서 ID로 변경됨
-                                        break;
-                                    case "전자교탁":
-                                        uidCate = "ED";
-                                        break;
-                                    case "DID":
-                                        uidCate = "DI";
-                                        break;
-                                    case "태블릿":
-                                        uidCate = "TB";
-                                        break;
-                                    case "프로젝트":
-                                    case "프로젝터":
-                                        uidCate = "PJ";
-                                        break;
-                                    default:
-                                        uidCate = "ET"; // 기타 장비
-                                        break;
-                                }
-                            }
-                        } else {
-                            uidCate = "ET"; // 타입 정보가 없는 경우 기본값
-                        }
+            // 다음 묶음 전에 영속성 컨텍스트를 비워 메모리 사용량을 일정하게 유지
+            // (컨텍스트가 들고 있는 취급자/관리번호/교실은 ID 가 있는 상태로 다음 묶음에서 참조만 함)
+            entityManager.flush();
+            entityManager.clear();
+            return saved;
+        });
+        progress.rowsPersisted(savedCount);
+        log.info("{}번째 행까지 커밋 완료 ({}개 장비)", lastRow + 1, savedCount);
+    }
+
+    private void saveCheckpoint(Long schoolId, String fileHash, String filename, int lastCommittedRow, int totalRows) {
+        ImportCheckpoint checkpoint = importCheckpointRepository.findBySchoolIdAndFileHash(schoolId, fileHash)
+                .orElseGet(() -> {
+                    ImportCheckpoint created = new ImportCheckpoint();
+                    created.setSchoolId(schoolId);
+                    created.setFileHash(fileHash);
+                    return created;
+                });
+        checkpoint.setFilename(filename);
+        checkpoint.setLastCommittedRow(lastCommittedRow);
+        checkpoint.setTotalRows(totalRows);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        importCheckpointRepository.save(checkpoint);
+    }
+
+    private String sha256(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream is = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+            byte[] buffer = new byte[8192];
+            while (is.read(buffer) != -1) {
+                // 읽으면서 해시 계산
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 엑셀 파일을 학교의 기존 장비와 대조하여 바뀐 부분만 반영합니다. (재업로드용)
+     * 각 행은 UID 컬럼의 고유번호(화면 표시 형식 또는 카테고리+번호)로, 없으면 관리번호(카테고리-연도-번호)로 기존 장비와 매칭합니다.
+     * 카테고리+번호 형식은 제조년이 달라도 같을 수 있으므로, 학교 안에서 한 장비에만 해당하는 고유번호로만 매칭하고
+     * 여러 장비에 해당하는 고유번호는 관리번호로 매칭합니다. 관리번호로도 찾지 못하면 등록/수정하지 않고 결과에 모호한 행으로 표시합니다.
+     * 매칭되지 않은 행은 새 장비로 등록하고, 매칭된 장비는 값이 다를 때만 수정합니다.
+     * 파일에 없는 기존 장비는 삭제하지 않고 결과에만 표시합니다.
+     * @param file 엑셀 파일
+     * @param schoolId 학교 ID
+     * @param progress 진행 상황을 전달받을 콜백
+     * @return 대조 결과
+     */
+    @Transactional
+    public ImportReconcileReport reconcileDevices(File file, Long schoolId, ImportProgress progress) throws IOException {
+        School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> {
+                    log.warn("학교를 찾을 수 없음. 학교 ID: {}", schoolId);
+                    return new IllegalArgumentException("학교를 찾을 수 없습니다.");
+                });
+        
+        // 기존 장비를 고유번호/관리번호 기준으로 한 번만 색인 (여러 장비에 해당하는 고유번호는 따로 모음)
+        List<Device> existingDevices = deviceRepository.findBySchoolWithAssociations(school);
+        Map<String, Device> devicesByUid = new HashMap<>();
+        Set<String> ambiguousUids = new HashSet<>();
+        Map<String, List<Device>> devicesByManage = new HashMap<>();
+        for (Device device : existingDevices) {
+            if (device.getUid() != null) {
+                indexUid(UidLabels.display(device.getUid()), device, devicesByUid, ambiguousUids);
+                indexUid(UidLabels.exported(device.getUid()), device, devicesByUid, ambiguousUids);
+            }
+            if (device.getManage() != null) {
+                Manage manage = device.getManage();
+                devicesByManage.computeIfAbsent(manageKey(manage.getManageCate(), manage.getYear(), manage.getManageNum()),
+                        key -> new ArrayList<>()).add(device);
+            }
+        }
+        log.info("대조할 기존 장비 수: {} (모호한 고유번호 {}개)", existingDevices.size(), ambiguousUids.size());
+        
+        ImportResolutionContext context = new ImportResolutionContext(school, operatorRepository, manageRepository, classroomRepository);
+        ImportReconcileReport report = new ImportReconcileReport();
+        Set<Device> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        
+        // 파일은 파싱한 묶음 단위로 대조
+        // 새 장비는 모든 묶음을 대조한 뒤 한 번에 저장 (UID 카운터 잠금을 업로드 전체에서 정렬된 순서로 잡기 위함)
+        List<Device> newDevices = new ArrayList<>();
+        readParsedRows(file, 0, progress, rows -> {
+            int updatedBefore = report.getUpdated();
+            for (DeviceRow row : rows) {
+                Device device = findMatchingDevice(row, devicesByUid, devicesByManage, matched);
+                if (device == null && ambiguousUids.contains(row.getUidInfo())) {
+                    // 고유번호가 여러 장비에 해당하고 관리번호로도 찾지 못함 - 임의의 장비를 고치거나 중복 등록하지 않음
+                    report.ambiguous(row.getRowCount() + 1);
+                } else if (device == null) {
+                    newDevices.add(resolveRow(row, context));
+                } else {
+                    matched.add(device);
+                    if (applyRow(device, row, context)) {
+                        report.updated(row.getRowCount() + 1);
                     } else {
-                        // UID 정보가 직접 입력된 경우 그대로 사용
-                        uidCate = uidInfo;
+                        report.unchanged();
                     }
-                    
-                    System.out.println((rowCount + 1) + "번째 행 최종 UID 카테고리: " + uidCate);
-                    
-                    // Device 객체 생성 및 기본 정보 설정
-                    Device device = new Device();
-                    device.setType(type);
-                    device.setManufacturer(manufacturer);
-                    device.setModelName(modelName);
-                    device.setPurchaseDate(purchaseDate);
-                    device.setIpAddress(ipAddress);
-                    device.setPurpose(purpose);
-                    device.setSetType(setType);
-                    device.setNote(note);
-                    device.setUnused(false);
-                    device.setClassroom(classroom);
-                    device.setSchool(school);
-                    device.setManage(manage);
-                    device.setOperator(operator);
-                    
-                    // 디바이스 저장 전에 UID 설정 - 필수 데이터 확인
-                    if (uidCate != null && !uidCate.trim().isEmpty()) {
-                        devices.add(device);
-                        System.out.println((rowCount + 1) + "번째 행 장비 처리 완료");
-                    } else {
-                        System.out.println((rowCount + 1) + "번째 행 UID 카테고리 누락으로 장비 무시");
+                }
+                progress.rowResolved();
+            }
+            // 수정된 장비는 변경 감지로 반영
+            progress.rowsPersisted(report.getUpdated() - updatedBefore);
+        });
+        
+        // 새 장비 등록 (새로 만든 취급자/관리번호/교실도 함께 저장)
+        int insertedCount = saveNewDevices(newDevices, school, context);
+        report.inserted(insertedCount);
+        progress.rowsPersisted(insertedCount);
+        
+        for (Device device : existingDevices) {
+            if (!matched.contains(device)) {
+                report.missing(describeDevice(device));
+            }
+        }
+        log.info("재업로드 대조 완료: {}", report.summary());
+        return report;
+    }
+
+    // 고유번호 표기를 색인 (이미 다른 장비가 있으면 모호한 표기로 옮김)
+    private void indexUid(String label, Device device, Map<String, Device> devicesByUid, Set<String> ambiguousUids) {
+        if (ambiguousUids.contains(label)) {
+            return;
+        }
+        Device existing = devicesByUid.putIfAbsent(label, device);
+        if (existing != null && existing != device) {
+            devicesByUid.remove(label);
+            ambiguousUids.add(label);
+        }
+    }
+
+    // UID 컬럼의 고유번호(한 장비에만 해당하는 것)로 먼저 찾고, 없으면 관리번호로 아직 매칭되지 않은 장비를 찾음
+    private Device findMatchingDevice(DeviceRow row, Map<String, Device> devicesByUid,
+                                      Map<String, List<Device>> devicesByManage, Set<Device> matched) {
+        if (UidLabels.isNumbered(row.getUidInfo())) {
+            Device device = devicesByUid.get(row.getUidInfo());
+            if (device != null && !matched.contains(device)) {
+                return device;
+            }
+        }
+        if (row.hasManage()) {
+            List<Device> candidates = devicesByManage.get(manageKey(row.getManageCate(), row.getManageYear(), row.getManageNum()));
+            if (candidates != null) {
+                for (Device candidate : candidates) {
+                    if (!matched.contains(candidate)) {
+                        return candidate;
                     }
-                } catch (Exception e) {
-                    System.out.println((rowCount + 1) + "번째 행 처리 중 예외 발생: " + e.getMessage());
-                    throw new IllegalArgumentException((rowCount+1) + "번째 행 처리 중 오류가 발생했습니다: " + e.getMessage());
                 }
             }
+        }
+        return null;
+    }
+
+    /**
+     * 기존 장비에 행의 값을 반영합니다. 값이 다른 항목만 바꾸며 고유번호는 유지합니다.
+     * @return 바뀐 항목이 있으면 true
+     */
+    private boolean applyRow(Device device, DeviceRow row, ImportResolutionContext context) {
+        boolean changed = false;
+        
+        if (!sameText(device.getType(), row.getType())) {
+            device.setType(row.getType());
+            changed = true;
+        }
+        if (!sameText(device.getManufacturer(), row.getManufacturer())) {
+            device.setManufacturer(row.getManufacturer());
+            changed = true;
+        }
+        if (!sameText(device.getModelName(), row.getModelName())) {
+            device.setModelName(row.getModelName());
+            changed = true;
+        }
+        if (!Objects.equals(device.getPurchaseDate(), row.getPurchaseDate())) {
+            device.setPurchaseDate(row.getPurchaseDate());
+            changed = true;
+        }
+        if (!sameText(device.getIpAddress(), row.getIpAddress())) {
+            device.setIpAddress(row.getIpAddress());
+            changed = true;
+        }
+        if (!sameText(device.getPurpose(), row.getPurpose())) {
+            device.setPurpose(row.getPurpose());
+            changed = true;
+        }
+        if (!sameText(device.getSetType(), row.getSetType())) {
+            device.setSetType(row.getSetType());
+            changed = true;
+        }
+        if (!sameText(device.getNote(), row.getNote())) {
+            device.setNote(row.getNote());
+            changed = true;
+        }
+        
+        // 교실
+        Classroom classroom = device.getClassroom();
+        if (classroom == null || !sameText(classroom.getRoomName(), row.getClassroomName())) {
+            device.setClassroom(context.resolveClassroom(row.getClassroomName()));
+            changed = true;
+        }
+        
+        // 관리번호
+        Manage manage = device.getManage();
+        String currentManage = manage != null ? manageKey(manage.getManageCate(), manage.getYear(), manage.getManageNum()) : null;
+        String rowManage = row.hasManage() ? manageKey(row.getManageCate(), row.getManageYear(), row.getManageNum()) : null;
+        if (!Objects.equals(currentManage, rowManage)) {
+            device.setManage(row.hasManage()
+                    ? context.resolveManage(row.getManageCate(), row.getManageYear(), row.getManageNum())
+                    : null);
+            changed = true;
+        }
+        
+        // 취급자 (직위와 이름이 모두 있을 때만 지정)
+        Operator operator = device.getOperator();
+        if (row.hasOperator()) {
+            if (operator == null || !Objects.equals(operator.getName(), row.getOperatorName())
+                    || !Objects.equals(operator.getPosition(), row.getOperatorPosition())) {
+                device.setOperator(context.resolveOperator(row.getOperatorName(), row.getOperatorPosition()));
+                changed = true;
+            }
+        } else if (operator != null) {
+            device.setOperator(null);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // null 과 빈 문자열은 같은 값으로 보고, 앞뒤 공백은 무시하고 비교
+    private boolean sameText(String a, String b) {
+        String left = a != null ? a.trim() : "";
+        String right = b != null ? b.trim() : "";
+        return left.equals(right);
+    }
+
+    private String manageKey(String manageCate, Integer year, Long manageNum) {
+        return manageCate + '\u0000' + year + '\u0000' + manageNum;
+    }
+
+    private String describeDevice(Device device) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(device.getUid() != null ? UidLabels.display(device.getUid()) : "고유번호 없음");
+        sb.append(" ").append(device.getType() != null ? device.getType() : "");
+        if (device.getClassroom() != null && device.getClassroom().getRoomName() != null) {
+            sb.append(" (").append(device.getClassroom().getRoomName()).append(")");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 엑셀 파일의 시트를 읽어 장비를 일괄 등록합니다.
+     * 기본은 이벤트(SAX) 기반 스트리밍 방식이며, 스트리밍으로 열 수 없는 파일만 Workbook(DOM) 방식으로 읽습니다.
+     * 읽은 행은 고정 크기 묶음마다 병렬로 파싱/검증한 뒤, DB 매칭과 저장은 읽는 스레드에서 행 순서대로 처리합니다.
+     * @param file 엑셀 파일
+     * @param sheetIndex 읽을 시트 순번 (0부터 시작)
+     * @param school 장비를 등록할 학교
+     * @param progress 진행 상황을 전달받을 콜백
+     */
+    private void importDevicesFromFile(File file, int sheetIndex, School school, ImportProgress progress) throws IOException {
+        // 학교의 취급자/관리번호/교실은 업로드 동안 한 번만 읽어 두고 행마다 메모리에서 매칭
+        ImportResolutionContext context = new ImportResolutionContext(school, operatorRepository, manageRepository, classroomRepository);
+        List<Device> devices = new ArrayList<>();
+        
+        // 셀 값 변환/검증은 DB 를 쓰지 않으므로 행 묶음 단위로 병렬 처리하고 (행 순서 유지),
+        // DB 매칭은 읽는 스레드에서 묶음 순서대로 처리
+        readParsedRows(file, sheetIndex, progress, rows -> devices.addAll(resolveRows(rows, context, progress)));
+        
+        // 저장은 모든 행을 매칭한 뒤 한 번에 (UID 카운터 잠금을 업로드 전체에서 정렬된 순서로 잡기 위함)
+        int saved = saveNewDevices(devices, school, context);
+        progress.rowsPersisted(saved);
+        log.info("총 {}개의 장비 저장 완료", saved);
+    }
+
+    /**
+     * 엑셀 파일의 시트에서 헤더를 제외한 데이터 행을 읽어 고정 크기 묶음 단위로 파싱합니다.
+     * 묶음을 다 처리한 뒤 다음 행을 읽으므로 시트 전체를 메모리에 모으지 않습니다.
+     * @param file 엑셀 파일
+     * @param sheetIndex 읽을 시트 순번 (0부터 시작)
+     * @param progress 진행 상황을 전달받을 콜백
+     * @param consumer 파싱한 묶음을 행 순서대로 받을 콜백
+     * @return 다 읽은 행 처리 콜백 (읽은 행 수 확인용)
+     */
+    private DeviceRowWindowHandler readParsedRows(File file, int sheetIndex, ImportProgress progress,
+                                                  Consumer<List<DeviceRow>> consumer) throws IOException {
+        DeviceRowWindowHandler handler = new DeviceRowWindowHandler(progress, consumer);
+        readImportSheet(file, sheetIndex, handler);
+        handler.finish();
+        log.info("총 행 수: {}", handler.getPhysicalRows());
+        return handler;
+    }
+
+    /**
+     * 파싱된 행들의 취급자/관리번호/교실을 매칭하고 UID 를 발급해 장비를 저장합니다.
+     * 호출한 쪽의 트랜잭션 안에서 실행되며, 한 트랜잭션에서 한 번만 호출해야 UID 카운터 잠금 순서가 유지됩니다.
+     * @param parsedRows 파싱된 행 (행 순서대로)
+     * @param context 업로드 조회 컨텍스트
+     * @param progress 진행 상황을 전달받을 콜백
+     * @return 저장한 장비 수
+     */
+    private int persistRows(List<DeviceRow> parsedRows, ImportResolutionContext context, ImportProgress progress) {
+        return saveNewDevices(resolveRows(parsedRows, context, progress), context.getSchool(), context);
+    }
+
+    /**
+     * 파싱된 행들의 취급자/관리번호/교실을 매칭해 새 장비를 만듭니다 (UID 발급과 저장은 하지 않음).
+     * @param parsedRows 파싱된 행 (행 순서대로)
+     * @param context 업로드 조회 컨텍스트
+     * @param progress 진행 상황을 전달받을 콜백
+     * @return 행 순서대로의 새 장비
+     */
+    private List<Device> resolveRows(List<DeviceRow> parsedRows, ImportResolutionContext context, ImportProgress progress) {
+        List<Device> devices = new ArrayList<>(parsedRows.size());
+        for (DeviceRow row : parsedRows) {
+            devices.add(resolveRow(row, context));
+            progress.rowResolved();
+        }
+        return devices;
+    }
+
+    /**
+     * 새 장비들에 UID 를 발급하고, 업로드 중 새로 만든 취급자/관리번호/교실과 함께 저장합니다.
+     * @param devices 저장할 새 장비
+     * @param school 장비를 등록할 학교
+     * @param context 업로드 조회 컨텍스트
+     * @return 저장한 장비 수
+     */
+    private int saveNewDevices(List<Device> devices, School school, ImportResolutionContext context) {
+        // 모든 디바이스 추출 후, UID 카테고리별로 그룹화하여 ID 번호 부여 (업로드 전체를 같은 규칙으로 분류)
+        UidCategoryRules rules = uidCategoryClassifier.current();
+        Map<String, List<Device>> devicesByCate = devices.stream()
+                .collect(Collectors.groupingBy(device -> rules.classify(device.getType(),
+                        device.getManage() != null ? device.getManage().getManageCate() : null),
+                        TreeMap::new, Collectors.toList()));
+        
+        System.out.println("UID 카테고리별 장비 수: " + devicesByCate.size() + "개 카테고리");
+        
+        // 각 카테고리/제조년별로 필요한 만큼 번호를 한 번에 예약하고 UID 생성
+        // (카운터 행 잠금 순서를 맞추기 위해 카테고리, 제조년 순으로 정렬된 순서로 예약)
+        String schoolCode = String.format("%02d", school.getSchoolId());
+        for (Map.Entry<String, List<Device>> entry : devicesByCate.entrySet()) {
+            String cate = entry.getKey();
+            List<Device> deviceList = entry.getValue();
             
-            // 모든 디바이스 추출 후, UID 카테고리별로 그룹화하여 ID 번호 부여
-            Map<String, List<Device>> devicesByCate = devices.stream()
-                    .collect(Collectors.groupingBy(device -> {
-                        // Device에 설정된 UID 카테고리 얻기
-                        String type = device.getType();
-                        Manage manage = device.getManage();
-                        
-                        if ("데스크톱".equals(type)) {
-                            if (manage != null && manage.getManageCate() != null) {
-                                String manageCate = manage.getManageCate();
-                                switch (manageCate) {
-                                    case "업무": return "DW";
-                                    case "교육": return "DE";
-                                    case "기타": return "DK";
-                                    case "컴퓨터교육": return "DC";
-                                    case "학교구매": return "DS";
-                                    case "기증품": return "DD";
-                                    default: return "DW";
-                                }
-                            } else {
-                                return "DW";
-                            }
-                        } else {
-                            switch (type) {
-                                case "모니터": return "MO";
-                                case "프린터": return "PR";
-                                case "TV": return "TV";
-                                case "전자칠판": return "ID"; // IE에서 ID로 변경됨
-                                case "전자교탁": return "ED";
-                                case "DID": return "DI";
-                                case "태블릿": return "TB";
-                                case "프로젝트":
-                                case "프로젝터": return "PJ";
-                                default: return "ET";
-                            }
-                        }
-                    }));
+            System.out.println("카테고리 '" + cate + "'의 장비 수: " + deviceList.size() + "개");
             
-            System.out.println("UID 카테고리별 장비 수: " + devicesByCate.size() + "개 카테고리");
+            // 제조일자가 있다면 해당 년도를 사용, 없으면 "xx" 사용
+            Map<String, List<Device>> devicesByMfgYear = deviceList.stream()
+                    .collect(Collectors.groupingBy(device -> device.getPurchaseDate() != null ? 
+                            String.valueOf(device.getPurchaseDate().getYear() % 100) : 
+                            "xx", TreeMap::new, Collectors.toList()));
             
-            // 각 카테고리별로 ID 번호 부여하고 UID 생성
-            for (Map.Entry<String, List<Device>> entry : devicesByCate.entrySet()) {
-                String cate = entry.getKey();
-                List<Device> deviceList = entry.getValue();
+            for (Map.Entry<String, List<Device>> yearEntry : devicesByMfgYear.entrySet()) {
+                String mfgYear = yearEntry.getKey();
+                List<Device> yearDevices = yearEntry.getValue();
+                UidBlock block = uidService.reserveIdNumbers(school, cate, mfgYear, yearDevices.size());
                 
-                System.out.println("카테고리 '" + cate + "'의 장비 수: " + deviceList.size() + "개");
-                
-                // 각 장비 처리
-                for (Device device : deviceList) {
-                    // 현재 연도의 뒤 두 자리 가져오기 (예: 2025 -> 25)
-                    int currentYear = LocalDate.now().getYear() % 100;
-                    
-                    // 제조일자가 있다면 해당 년도를 사용, 없으면 "xx" 사용
-                    String mfgYear = device.getPurchaseDate() != null ? 
-                            String.valueOf(device.getPurchaseDate().getYear() % 100) : 
-                            "xx";
-                    
-                    // 학교 PK를 2자리 문자열로 변환 (예: 2 -> "02")
-                    String schoolCode = String.format("%02d", school.getSchoolId());
-                    
-                    // 해당 카테고리, 학교, 제조년의 최대 ID 번호 조회
-                    Long lastNumber = uidService.getLastIdNumberBySchoolAndMfgYear(school, cate, mfgYear);
-                    
-                    // 새 ID 번호 계산
-                    Long idNumber = lastNumber + 1;
+                for (Device device : yearDevices) {
+                    Long idNumber = block.next();
                     
                     // UID 생성 및 설정
                     Uid uid = uidService.createUidWithMfgYear(cate, idNumber, mfgYear, school);
                     device.setUid(uid);
                     
-                    System.out.println("장비에 UID 설정: 카테고리=" + cate + 
-                            ", 학교코드=" + schoolCode + 
-                            ", 제조년=" + mfgYear + 
-                            ", ID번호=" + String.format("%04d", idNumber) + 
-                            " (표시: " + cate + schoolCode + mfgYear + String.format("%04d", idNumber) + ")");
+                    log.debug("장비에 UID 설정: 카테고리={}, 학교코드={}, 제조년={}, ID번호={}",
+                            cate, schoolCode, mfgYear, idNumber);
                 }
             }
-            
-            // 최종 저장
-            int savedCount = deviceRepository.saveAll(devices).size();
-            System.out.println("총 " + savedCount + "개의 장비 저장 완료");
         }
         
-        // 메서드 끝에 추가 (return 문 바로 앞에)
-        entityManager.flush();
-        entityManager.clear();
+        // 업로드 중 새로 만든 취급자/관리번호/교실을 먼저 한꺼번에 저장한 뒤 장비 저장
+        context.saveNewEntities();
+        
+        // 최종 저장
+        return deviceRepository.saveAll(devices).size();
+    }
+
+    /**
+     * 업로드 엑셀 파일의 첫 번째 시트를 헤더 행을 포함해 한 행씩 읽습니다.
+     * 스트리밍 방식으로 열 수 없는 파일만 Workbook(DOM) 방식으로 읽습니다.
+     * @param file 엑셀 파일
+     * @param handler 행 처리 콜백 (업로드 컬럼 수만큼의 셀 문자열을 받음)
+     */
+    public void readImportSheet(File file, ExcelRowHandler handler) throws IOException {
+        readImportSheet(file, 0, handler);
+    }
+
+    /**
+     * 업로드 엑셀 파일의 지정한 시트를 헤더 행을 포함해 한 행씩 읽습니다.
+     * CSV/TSV 파일은 시트가 하나뿐이므로 시트 순번과 관계없이 파일 전체를 읽습니다.
+     * @param file 엑셀 또는 CSV/TSV 파일
+     * @param sheetIndex 읽을 시트 순번 (0부터 시작)
+     * @param handler 행 처리 콜백 (업로드 컬럼 수만큼의 셀 문자열을 받음)
+     */
+    public void readImportSheet(File file, int sheetIndex, ExcelRowHandler handler) throws IOException {
+        if (DelimitedTextReader.supports(file.getName())) {
+            DelimitedTextReader.read(file, IMPORT_COLUMN_COUNT, handler);
+            return;
+        }
+        if (!ExcelStreamingReader.read(file, sheetIndex, IMPORT_COLUMN_COUNT, handler)) {
+            log.info("스트리밍 방식으로 읽을 수 없는 파일이므로 Workbook 방식으로 읽습니다: {}", file.getName());
+            readWorkbookRows(file, sheetIndex, handler);
+        }
+    }
+
+    /**
+     * 업로드 엑셀 파일의 시트 이름을 시트 순서대로 읽습니다.
+     * @param file 엑셀 파일
+     * @return 시트 이름 목록
+     */
+    public List<String> getImportSheetNames(File file) throws IOException {
+        List<String> names = ExcelStreamingReader.sheetNames(file);
+        if (names != null) {
+            return names;
+        }
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            names = new ArrayList<>();
+            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
+                names.add(workbook.getSheetName(i));
+            }
+            return names;
+        }
+    }
+
+    /**
+     * Workbook(DOM) 방식으로 시트를 읽습니다. 스트리밍 리더가 열지 못하는 파일을 위한 대체 경로입니다.
+     */
+    private void readWorkbookRows(File file, int sheetIndex, ExcelRowHandler handler) throws IOException {
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            Sheet sheet = workbook.getSheetAt(sheetIndex);
+            for (Row row : sheet) {
+                String[] cells = new String[IMPORT_COLUMN_COUNT];
+                for (int i = 0; i < IMPORT_COLUMN_COUNT; i++) {
+                    cells[i] = getCellString(row.getCell(i));
+                }
+                handler.handleRow(cells);
+            }
+        }
+    }
+
+    /**
+     * 파싱된 행의 취급자/관리번호/교실을 매칭해 Device 로 변환합니다.
+     * 업로드 컨텍스트를 사용하므로 한 스레드(저장 단계)에서만 호출합니다.
+     * @param row 파싱된 행
+     * @param context 업로드 동안 사용하는 취급자/관리번호/교실 조회 컨텍스트
+     * @return 변환된 장비 (UID 는 아직 없음)
+     */
+    private Device resolveRow(DeviceRow row, ImportResolutionContext context) {
+        int rowCount = row.getRowCount();
+        try {
+            // 미리 읽어 둔 관리번호에서 찾고, 없으면 새로 만듦 (저장은 업로드 끝에서 한꺼번에)
+            Manage manage = null;
+            if (row.hasManage()) {
+                manage = context.resolveManage(row.getManageCate(), row.getManageYear(), row.getManageNum());
+            }
+            
+            // 취급자 정보는 선택사항이므로 오류가 있어도 진행
+            Operator operator = null;
+            try {
+                if (row.hasOperator()) {
+                    operator = context.resolveOperator(row.getOperatorName(), row.getOperatorPosition());
+                }
+            } catch (Exception e) {
+                System.out.println((rowCount + 1) + "번째 행 취급자 정보 처리 중 오류: " + e.getMessage());
+            }
+            
+            // 이 학교의 교실 중에서 찾고, 없으면 새로 만듦
+            Classroom classroom;
+            try {
+                classroom = context.resolveClassroom(row.getClassroomName());
+            } catch (Exception e) {
+                System.out.println((rowCount + 1) + "번째 행 교실 처리 중 예외 발생: " + e.getMessage());
+                throw new IllegalArgumentException((rowCount+1) + "번째 행 교실 처리 중 오류가 발생했습니다: " + e.getMessage());
+            }
+            
+            // Device 객체 생성 및 기본 정보 설정
+            Device device = new Device();
+            device.setType(row.getType());
+            device.setManufacturer(row.getManufacturer());
+            device.setModelName(row.getModelName());
+            device.setPurchaseDate(row.getPurchaseDate());
+            device.setIpAddress(row.getIpAddress());
+            device.setPurpose(row.getPurpose());
+            device.setSetType(row.getSetType());
+            device.setNote(row.getNote());
+            device.setUnused(false);
+            device.setClassroom(classroom);
+            device.setSchool(context.getSchool());
+            device.setManage(manage);
+            device.setOperator(operator);
+            
+            // UID 는 저장 직전에 분류 규칙에 따라 카테고리별로 한꺼번에 발급
+            return device;
+        } catch (Exception e) {
+            System.out.println((rowCount + 1) + "번째 행 처리 중 예외 발생: " + e.getMessage());
+            throw new IllegalArgumentException((rowCount+1) + "번째 행 처리 중 오류가 발생했습니다: " + e.getMessage());
+        }
     }
 
     private String getCellString(Cell cell) {
@@ -792,12 +1034,7 @@ public class DeviceService {
                         return cell.getLocalDateTimeCellValue().toString();
                     } else {
                         // 숫자를 문자열로 변환 (소수점 제거)
-                        double numValue = cell.getNumericCellValue();
-                        if (numValue == Math.floor(numValue)) {
-                            return String.format("%.0f", numValue);
-                        } else {
-                            return String.valueOf(numValue);
-                        }
+                        return ExcelStreamingReader.formatNumber(cell.getNumericCellValue());
                     }
                 case BOOLEAN:
                     return String.valueOf(cell.getBooleanCellValue());
@@ -820,84 +1057,6 @@ public class DeviceService {
         }
     }
 
-    private static class ManageNumber {
-        String manageCate;
-        Integer year;
-        Long manageNum;
-        ManageNumber(String manageCate, Integer year, Long manageNum) {
-            this.manageCate = manageCate;
-            this.year = year;
-            this.manageNum = manageNum;
-        }
-    }
-
-    private ManageNumber parseManageNo(String manageNo) {
-        String[] parts = manageNo.split("-");
-        if (parts.length == 3) {
-            return new ManageNumber(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
-        } else if (parts.length == 2) {
-            return new ManageNumber(parts[0], null, Long.parseLong(parts[1]));
-        } else {
-            throw new IllegalArgumentException("관리번호 형식이 잘못되었습니다. 확인하여주세요. ('관리카테고리-일련번호' 또는 '관리카테고리-연도-일련번호' 형식이어야 합니다.)");
-        }
-    }
-
-    private LocalDate parseLocalDate(Cell cell) {
-        String value = getCellString(cell);
-        if (value == null || value.isBlank()) return null;
-        
-        try {
-            // 셀이 날짜 형식인 경우 직접 변환
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            }
-            
-            // 문자열 전처리 - 다양한 구분자와 형식 정규화
-            value = value.trim()
-                    .replace("년", "-").replace("월", "-").replace("일", "")
-                    .replace(".", "-").replace("/", "-").replace(" ", "")
-                    .replaceAll("--", "-").replaceAll("-$", "");
-            
-            // 다양한 날짜 형식 처리
-            if (value.matches("\\d{4}-\\d{1,2}-\\d{1,2}")) {
-                // YYYY-MM-DD 형식
-                return LocalDate.parse(value, DateTimeFormatter.ofPattern("yyyy-M-d"));
-            } else if (value.matches("\\d{4}-\\d{1,2}")) {
-                // YYYY-MM 형식 (일은 1일로 설정)
-                return LocalDate.parse(value + "-01", DateTimeFormatter.ofPattern("yyyy-M-d"));
-            } else if (value.matches("\\d{4}")) {
-                // YYYY 형식 (월과 일은 1월 1일로 설정)
-                return LocalDate.parse(value + "-01-01", DateTimeFormatter.ofPattern("yyyy-M-d"));
-            } else if (value.matches("\\d{2}-\\d{1,2}")) {
-                // YY-MM 형식 (현재 세기에 맞춰 연도 해석, 일은 1일로 설정)
-                int currentCentury = LocalDate.now().getYear() / 100 * 100;
-                int year = Integer.parseInt(value.split("-")[0]);
-                if (year > LocalDate.now().getYear() % 100) {
-                    // 입력된 연도가 현재 연도의 뒤 두자리보다 크면 이전 세기로 해석
-                    currentCentury -= 100;
-                }
-                return LocalDate.parse((currentCentury + year) + "-" + value.split("-")[1] + "-01", 
-                        DateTimeFormatter.ofPattern("yyyy-M-d"));
-            } else if (value.matches("\\d{2}")) {
-                // YY 형식 (현재 세기에 맞춰 연도 해석, 월과 일은 1월 1일로 설정)
-                int currentCentury = LocalDate.now().getYear() / 100 * 100;
-                int year = Integer.parseInt(value);
-                if (year > LocalDate.now().getYear() % 100) {
-                    // 입력된 연도가 현재 연도의 뒤 두자리보다 크면 이전 세기로 해석
-                    currentCentury -= 100;
-                }
-                return LocalDate.parse((currentCentury + year) + "-01-01", 
-                        DateTimeFormatter.ofPattern("yyyy-M-d"));
-            }
-        } catch (DateTimeParseException | NumberFormatException e) {
-            // 날짜 파싱 실패 시 null 반환 (오류 메시지 없이 계속 진행)
-            System.out.println("날짜 파싱 오류: " + value + " - " + e.getMessage());
-        }
-        
-        // 어떤 형식으로도 파싱할 수 없는 경우 null 반환 (오류 발생 없이 빈 값으로 처리)
-        return null;
-    }
-
     /**
      * 장비에 Uid를 설정합니다.
      * @param device 장비 객체
@@ -958,7 +1117,7 @@ public class DeviceService {
         if (school != null) {
             // 학교별로 Uid 조회 또는 생성
             uid = uidService.findBySchoolAndCateAndMfgYearAndIdNumber(school, cate, mfgYear, idNumber)
-                    .orElseGet(() -> uidService.createUidWithMfgYear(cate, idNumber, mfgYear, school));
+                    .orElseGet(() -> uidService.createUidWithSpecifiedNumber(cate, idNumber, mfgYear, school));
         } else {
             // 학교 정보가 없으면 기존 방식대로 처리
             uid = uidService.getUidByCateAndIdNumber(cate, idNumber)
@@ -969,56 +1128,78 @@ public class DeviceService {
         return deviceRepository.save(device);
     }
 
-    // 빈 행 여부 체크
-    private boolean isEmptyRow(Row row) {
-        // 최소한 타입(3번째 컬럼)은 있어야 함
-        Cell typeCell = row.getCell(2);
-        if (typeCell == null) return true;
-        
-        String typeValue = getCellString(typeCell);
-        if (typeValue == null || typeValue.trim().isEmpty()) return true;
-        
-        // 최소한 하나의 다른 컬럼에 데이터가 있어야 함
-        boolean hasOtherData = false;
-        for (int i = 0; i <= 12; i++) {
-            if (i == 2) continue; // 타입 컬럼은 이미 체크함
-            
-            Cell cell = row.getCell(i);
-            if (cell != null) {
-                String value = getCellString(cell);
-                if (value != null && !value.trim().isEmpty()) {
-                    hasOtherData = true;
-                    break; // 데이터가 있는 컬럼을 발견
+    /**
+     * UID 카테고리를 직접 지정하지 않은 장비에 분류 규칙에 따른 Uid를 설정합니다.
+     * 이미 규칙과 같은 카테고리의 Uid가 있으면 그대로 두고, 없거나 카테고리가 달라졌으면 새로 발급합니다.
+     * @param device 장비 객체
+     * @param manageCate 관리 카테고리 (관리번호가 없으면 null)
+     * @return 업데이트된 장비 객체
+     */
+    public Device setDeviceUidByRule(Device device, String manageCate) {
+        String cate = uidCategoryClassifier.classify(device.getType(), manageCate);
+        if (device.getUid() != null && cate.equals(device.getUid().getCate())) {
+            return device;
+        }
+        return setDeviceUid(device, cate);
+    }
+
+    /**
+     * 학교 장비의 UID 카테고리를 현재 분류 규칙에 맞게 다시 정합니다.
+     * 장비를 고유번호/관리번호와 함께 한 번에 읽어 메모리에서 분류하고, 카테고리가 달라진 장비와 고유번호가 없는 장비만
+     * 카테고리/제조년별로 번호를 한 번에 예약해 새 고유번호를 발급합니다.
+     * 고유번호 행은 여러 장비가 함께 참조할 수 있으므로 기존 행은 고치지 않고 그대로 둡니다. (setDeviceUid 와 같음)
+     * @param schoolId 학교 ID
+     * @return 고유번호가 바뀌거나 새로 발급된 장비 수
+     */
+    public int reclassifyUids(Long schoolId) {
+        School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("학교를 찾을 수 없습니다."));
+        UidCategoryRules rules = uidCategoryClassifier.current();
+
+        // 카테고리 → 제조년 → 장비 (카운터 행 잠금 순서를 맞추기 위해 정렬된 순서로 예약)
+        Map<String, Map<String, List<Device>>> changed = new TreeMap<>();
+        for (Device device : deviceRepository.findBySchoolWithAssociations(school)) {
+            String cate = rules.classify(device.getType(),
+                    device.getManage() != null ? device.getManage().getManageCate() : null);
+            Uid uid = device.getUid();
+            if (uid != null && cate.equals(uid.getCate())) {
+                continue;
+            }
+            String mfgYear;
+            if (uid != null && uid.getMfgYear() != null) {
+                mfgYear = uid.getMfgYear();
+            } else {
+                mfgYear = device.getPurchaseDate() != null
+                        ? String.valueOf(device.getPurchaseDate().getYear() % 100) : "xx";
+            }
+            changed.computeIfAbsent(cate, c -> new TreeMap<>())
+                    .computeIfAbsent(mfgYear, y -> new ArrayList<>())
+                    .add(device);
+        }
+
+        int count = 0;
+        for (Map.Entry<String, Map<String, List<Device>>> entry : changed.entrySet()) {
+            String cate = entry.getKey();
+            for (Map.Entry<String, List<Device>> yearEntry : entry.getValue().entrySet()) {
+                String mfgYear = yearEntry.getKey();
+                List<Device> yearDevices = yearEntry.getValue();
+                UidBlock block = uidService.reserveIdNumbers(school, cate, mfgYear, yearDevices.size());
+                for (Device device : yearDevices) {
+                    device.setUid(uidService.createUidWithMfgYear(cate, block.next(), mfgYear, school));
+                    count++;
                 }
             }
         }
-        
-        // 타입은 있지만 다른 모든 컬럼이 비어있으면 빈 행으로 간주
-        return !hasOtherData;
+        log.info("UID 카테고리 재분류 완료 - 학교: {}, 변경된 장비: {}개", school.getSchoolName(), count);
+        return count;
     }
 
     /**
      * 필터링된 장비 목록을 가져오는 메서드
-     * @param schoolId 학교 ID (필터링할 경우)
-     * @param type 장비 유형 (필터링할 경우)
-     * @param classroomId 교실 ID (필터링할 경우)
+     * @param filter 조회 조건 (null 또는 빈 값인 조건은 적용하지 않음)
      * @return 필터링된 장비 목록
      */
-    public List<Device> findFiltered(Long schoolId, String type, Long classroomId) {
-        if (schoolId != null && type != null && !type.isEmpty() && classroomId != null) {
-            return findBySchoolAndTypeAndClassroom(schoolId, type, classroomId);
-        } else if (schoolId != null && type != null && !type.isEmpty()) {
-            return findBySchoolAndType(schoolId, type);
-        } else if (schoolId != null && classroomId != null) {
-            return findBySchoolAndClassroom(schoolId, classroomId);
-        } else if (schoolId != null) {
-            return findBySchool(schoolId);
-        } else if (type != null && !type.isEmpty()) {
-            return findByType(type);
-        } else if (classroomId != null) {
-            return findByClassroom(classroomId);
-        } else {
-            return findAll();
-        }
+    public List<Device> findFiltered(DeviceFilter filter) {
+        return deviceRepository.findAll(DeviceSpecifications.matching(filter));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.inet.service;
+
+/**
+ * 엑셀(또는 텍스트) 파일에서 읽은 행을 한 행씩 전달받는 콜백
+ * 읽는 방식(SAX 스트리밍, Workbook DOM 등)과 관계없이 같은 행 처리 로직을 사용하기 위해 사용합니다.
+ */
+@FunctionalInterface
+public interface ExcelRowHandler {
+
+    /**
+     * 한 행을 처리합니다.
+     * @param cells 컬럼 순서대로 정리된 셀 문자열 (값이 없는 셀은 null)
+     */
+    void handleRow(String[] cells);
+}
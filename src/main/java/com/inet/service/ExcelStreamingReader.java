@@ -0,0 +1,455 @@
+package com.inet.service;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.eventusermodel.MissingRecordAwareHSSFListener;
+import org.apache.poi.hssf.eventusermodel.dummyrecord.LastCellOfRowDummyRecord;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 엑셀 파일의 시트를 이벤트 방식으로 한 행씩 읽는 리더
+ * 워크북 전체를 메모리에 올리지 않으므로 행 수와 관계없이 메모리 사용량이 일정합니다.
+ * .xlsx 는 XSSF SAX 리더, .xls 는 HSSF 이벤트 리스너로 읽습니다.
+ */
+public final class ExcelStreamingReader {
+
+    private ExcelStreamingReader() {
+    }
+
+    /**
+     * 파일 형식을 확인한 뒤 스트리밍 방식으로 첫 번째 시트를 읽습니다.
+     * @param file 엑셀 파일
+     * @param columnCount 읽을 컬럼 수 (그 뒤의 컬럼은 무시)
+     * @param handler 행 처리 콜백
+     * @return 스트리밍으로 읽었으면 true, 스트리밍으로 열 수 없는 파일이면 false (행은 하나도 전달되지 않음)
+     */
+    public static boolean read(File file, int columnCount, ExcelRowHandler handler) throws IOException {
+        return read(file, 0, columnCount, handler);
+    }
+
+    /**
+     * 파일 형식을 확인한 뒤 스트리밍 방식으로 지정한 시트를 읽습니다.
+     * @param file 엑셀 파일
+     * @param sheetIndex 읽을 시트 순번 (0부터 시작)
+     * @param columnCount 읽을 컬럼 수 (그 뒤의 컬럼은 무시)
+     * @param handler 행 처리 콜백
+     * @return 스트리밍으로 읽었으면 true, 스트리밍으로 열 수 없는 파일이면 false (행은 하나도 전달되지 않음)
+     */
+    public static boolean read(File file, int sheetIndex, int columnCount, ExcelRowHandler handler) throws IOException {
+        FileMagic magic = FileMagic.valueOf(file);
+        switch (magic) {
+            case OOXML:
+                return readXlsx(file, sheetIndex, columnCount, handler);
+            case OLE2:
+                return readXls(file, sheetIndex, columnCount, handler);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 워크북의 시트 이름을 시트 순서대로 읽습니다. 시트 내용은 읽지 않습니다.
+     * @param file 엑셀 파일
+     * @return 시트 이름 목록, 스트리밍으로 열 수 없는 파일이면 null
+     */
+    public static List<String> sheetNames(File file) throws IOException {
+        FileMagic magic = FileMagic.valueOf(file);
+        switch (magic) {
+            case OOXML:
+                return xlsxSheetNames(file);
+            case OLE2:
+                return xlsSheetNames(file);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean readXlsx(File file, int sheetIndex, int columnCount, ExcelRowHandler handler) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (Exception e) {
+            return false;
+        }
+
+        try {
+            InputStream sheet;
+            XSSFSheetXMLHandler sheetHandler;
+            try {
+                XSSFReader reader = new XSSFReader(pkg);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+                StylesTable styles = reader.getStylesTable();
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                sheet = null;
+                for (int i = 0; i <= sheetIndex && sheets.hasNext(); i++) {
+                    InputStream current = sheets.next();
+                    if (i == sheetIndex) {
+                        sheet = current;
+                    } else {
+                        current.close();
+                    }
+                }
+                if (sheet == null) {
+                    return false;
+                }
+                sheetHandler = new XSSFSheetXMLHandler(styles, strings,
+                        new XlsxRowCollector(columnCount, handler), new CellValueFormatter(), false);
+            } catch (OpenXML4JException | SAXException | RuntimeException e) {
+                return false;
+            }
+
+            try (InputStream is = sheet) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(sheetHandler);
+                parser.parse(new InputSource(is));
+            } catch (SAXException | ParserConfigurationException e) {
+                throw new IOException("엑셀 시트를 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+            }
+            return true;
+        } finally {
+            // 읽기 전용으로 열었으므로 저장하지 않고 닫음
+            pkg.revert();
+        }
+    }
+
+    private static boolean readXls(File file, int sheetIndex, int columnCount, ExcelRowHandler handler) throws IOException {
+        POIFSFileSystem fs;
+        try {
+            fs = new POIFSFileSystem(file, true);
+        } catch (Exception e) {
+            return false;
+        }
+
+        try (fs) {
+            try {
+                HSSFWorkbook.getWorkbookDirEntryName(fs.getRoot());
+            } catch (IllegalArgumentException e) {
+                // 워크북 스트림이 없거나 지원하지 않는 구버전/암호화 파일
+                return false;
+            }
+            XlsRowListener listener = new XlsRowListener(sheetIndex, columnCount, handler);
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(listener.formatListener);
+            new HSSFEventFactory().processWorkbookEvents(request, fs);
+            listener.finish();
+            return true;
+        }
+    }
+
+    private static List<String> xlsxSheetNames(File file) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (Exception e) {
+            return null;
+        }
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) new XSSFReader(pkg).getSheetsData();
+            List<String> names = new ArrayList<>();
+            while (sheets.hasNext()) {
+                try (InputStream ignored = sheets.next()) {
+                    names.add(sheets.getSheetName());
+                }
+            }
+            return names;
+        } catch (OpenXML4JException | RuntimeException e) {
+            return null;
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    private static List<String> xlsSheetNames(File file) throws IOException {
+        POIFSFileSystem fs;
+        try {
+            fs = new POIFSFileSystem(file, true);
+        } catch (Exception e) {
+            return null;
+        }
+        try (fs) {
+            try {
+                HSSFWorkbook.getWorkbookDirEntryName(fs.getRoot());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+            // 시트 이름(BoundSheetRecord)은 워크북 앞부분에 있으므로 첫 번째 워크시트가 시작되면 읽기를 멈춤
+            List<String> names = new ArrayList<>();
+            HSSFRequest request = new HSSFRequest();
+            request.addListenerForAllRecords(new AbortableHSSFListener() {
+                @Override
+                public short abortableProcessRecord(Record record) {
+                    if (record.getSid() == BoundSheetRecord.sid) {
+                        names.add(((BoundSheetRecord) record).getSheetname());
+                    } else if (record.getSid() == BOFRecord.sid
+                            && ((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                        return 1;
+                    }
+                    return 0;
+                }
+            });
+            try {
+                new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs);
+            } catch (HSSFUserException e) {
+                throw new IOException("엑셀 시트 목록을 읽는 중 오류가 발생했습니다: " + e.getMessage(), e);
+            }
+            return names;
+        }
+    }
+
+    /**
+     * "B12" 같은 셀 참조에서 0부터 시작하는 컬럼 번호를 구합니다.
+     */
+    static int columnIndex(String cellReference) {
+        int col = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    /**
+     * 숫자 셀 값을 Workbook 방식의 셀 문자열 변환과 같은 형태로 바꿉니다.
+     * 날짜 서식이면 LocalDateTime 문자열, 정수면 소수점 없는 숫자, 그 외에는 그대로 변환합니다.
+     */
+    static class CellValueFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toString();
+            }
+            return formatNumber(value);
+        }
+    }
+
+    /**
+     * 날짜가 아닌 숫자 셀 값을 문자열로 바꿉니다.
+     * 정수면 소수점 없이(기존 "%.0f" 와 같은 값), 소수가 있으면 반올림하지 않고 String.valueOf 그대로(예: 12.5) 변환합니다.
+     * 기존 Workbook 방식 변환과 같은 규칙이며, 관리번호처럼 숫자로 해석하는 컬럼에 소수가 들어오면 DeviceRowParser 가
+     * 형식 오류로 알려 줍니다. (반올림해서 다른 번호로 저장하지 않음)
+     * 셀마다 호출되므로 String.format 대신 long 변환으로 처리합니다.
+     */
+    static String formatNumber(double value) {
+        if (value == Math.floor(value) && !Double.isInfinite(value)) {
+            if (Math.abs(value) < 1e18) {
+                return Long.toString((long) value);
+            }
+            // long 범위를 넘는 정수는 지수 표기 없이 (new BigDecimal(double) 은 이진 근사값의 모든 자릿수를 출력하므로 사용하지 않음)
+            return BigDecimal.valueOf(value).toPlainString();
+        }
+        // 소수는 반올림하지 않음
+        return String.valueOf(value);
+    }
+
+    /**
+     * XSSF SAX 이벤트를 행 단위 문자열 배열로 모으는 핸들러
+     */
+    private static class XlsxRowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final int columnCount;
+        private final ExcelRowHandler handler;
+        private String[] cells;
+        private int nextColumn;
+
+        XlsxRowCollector(int columnCount, ExcelRowHandler handler) {
+            this.columnCount = columnCount;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells = new String[columnCount];
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.handleRow(cells);
+            cells = null;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? columnIndex(cellReference) : nextColumn;
+            nextColumn = col + 1;
+            if (col >= 0 && col < columnCount && formattedValue != null) {
+                cells[col] = formattedValue.trim();
+            }
+        }
+    }
+
+    /**
+     * HSSF 레코드 이벤트를 행 단위 문자열 배열로 모으는 리스너 (지정한 워크시트만 처리)
+     */
+    private static class XlsRowListener implements HSSFListener {
+        private final int sheetIndex;
+        private final int columnCount;
+        private final ExcelRowHandler handler;
+        private final CellValueFormatter formatter = new CellValueFormatter();
+        private final FormatTrackingHSSFListener formatListener;
+
+        private SSTRecord sstRecord;
+        private int worksheetCount = 0;
+        private String[] cells;
+        private int currentRow = -1;
+
+        // 문자열 결과를 가진 수식은 다음 StringRecord 에 값이 들어 있음
+        private boolean expectFormulaString = false;
+        private int formulaColumn;
+
+        XlsRowListener(int sheetIndex, int columnCount, ExcelRowHandler handler) {
+            this.sheetIndex = sheetIndex;
+            this.columnCount = columnCount;
+            this.handler = handler;
+            this.formatListener = new FormatTrackingHSSFListener(new MissingRecordAwareHSSFListener(this));
+        }
+
+        @Override
+        public void processRecord(Record record) {
+            if (record.getSid() == BOFRecord.sid) {
+                if (((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET) {
+                    worksheetCount++;
+                }
+                return;
+            }
+            if (record.getSid() == SSTRecord.sid) {
+                sstRecord = (SSTRecord) record;
+                return;
+            }
+            if (worksheetCount != sheetIndex + 1) {
+                return;
+            }
+
+            switch (record.getSid()) {
+                case LabelSSTRecord.sid: {
+                    LabelSSTRecord label = (LabelSSTRecord) record;
+                    String value = sstRecord != null ? sstRecord.getString(label.getSSTIndex()).getString() : null;
+                    setCell(label, value);
+                    break;
+                }
+                case LabelRecord.sid: {
+                    LabelRecord label = (LabelRecord) record;
+                    setCell(label.getRow(), label.getColumn(), label.getValue());
+                    break;
+                }
+                case NumberRecord.sid: {
+                    NumberRecord number = (NumberRecord) record;
+                    setCell(number, formatNumber(number, number.getValue()));
+                    break;
+                }
+                case BoolErrRecord.sid: {
+                    BoolErrRecord boolErr = (BoolErrRecord) record;
+                    setCell(boolErr, boolErr.isBoolean() ? String.valueOf(boolErr.getBooleanValue()) : "");
+                    break;
+                }
+                case FormulaRecord.sid: {
+                    FormulaRecord formula = (FormulaRecord) record;
+                    if (formula.hasCachedResultString()) {
+                        expectFormulaString = true;
+                        formulaColumn = formula.getColumn();
+                        startRowIfNeeded(formula.getRow());
+                    } else {
+                        setCell(formula, formatNumber(formula, formula.getValue()));
+                    }
+                    break;
+                }
+                case StringRecord.sid: {
+                    if (expectFormulaString) {
+                        setCell(currentRow, formulaColumn, ((StringRecord) record).getString());
+                        expectFormulaString = false;
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+
+            if (record instanceof LastCellOfRowDummyRecord) {
+                LastCellOfRowDummyRecord lastCell = (LastCellOfRowDummyRecord) record;
+                startRowIfNeeded(lastCell.getRow());
+                flushRow();
+            }
+        }
+
+        void finish() {
+            if (cells != null) {
+                flushRow();
+            }
+        }
+
+        private String formatNumber(CellValueRecordInterface cell, double value) {
+            return formatter.formatRawCellContents(value, formatListener.getFormatIndex(cell),
+                    formatListener.getFormatString(cell));
+        }
+
+        private void setCell(CellValueRecordInterface cell, String value) {
+            setCell(cell.getRow(), cell.getColumn(), value);
+        }
+
+        private void setCell(int row, int col, String value) {
+            startRowIfNeeded(row);
+            if (col >= 0 && col < columnCount && value != null) {
+                cells[col] = value.trim();
+            }
+        }
+
+        private void startRowIfNeeded(int row) {
+            if (cells != null && currentRow == row) {
+                return;
+            }
+            if (cells != null) {
+                flushRow();
+            }
+            cells = new String[columnCount];
+            currentRow = row;
+        }
+
+        private void flushRow() {
+            String[] row = cells;
+            cells = null;
+            handler.handleRow(row);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.inet.service;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 백그라운드 장비 출력 작업의 상태
+ * 작업 스레드가 진행 상황을 기록하고, 요청 스레드는 진행률 조회와 완성된 파일 다운로드에 사용합니다.
+ */
+@Getter
+public class ExportJob implements ExportProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public enum Format {
+        // 조건에 맞는 장비 엑셀 (/device/excel 과 같음)
+        XLSX("xlsx", "devices", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        // 조건에 맞는 장비 CSV/NDJSON (/device/export.csv, /device/export.ndjson 과 같음)
+        CSV("csv", "devices", "text/csv; charset=UTF-8"),
+        NDJSON("ndjson", "devices", "application/x-ndjson"),
+        // 전체 학교 - 학교별 시트를 가진 워크북 하나
+        ALL_SCHOOLS_XLSX("xlsx", "devices_all", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+        // 전체 학교 - 학교별 워크북을 묶은 ZIP 파일
+        ALL_SCHOOLS_ZIP("zip", "devices_all", "application/zip");
+
+        private final String extension;
+        private final String baseName;
+        private final String contentType;
+
+        Format(String extension, String baseName, String contentType) {
+            this.extension = extension;
+            this.baseName = baseName;
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getFilename() {
+            return baseName + "." + extension;
+        }
+
+        public boolean isAllSchools() {
+            return this == ALL_SCHOOLS_XLSX || this == ALL_SCHOOLS_ZIP;
+        }
+    }
+
+    private final String jobId;
+    private final Format format;
+    private final Long schoolId;
+    private final String type;
+    private final Long classroomId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+    // 출력할 전체 장비 수 (작업 시작 시 계산, 그 전에는 0)
+    private volatile long totalRows;
+    private volatile long fileSize;
+
+    private final AtomicInteger rowsWritten = new AtomicInteger();
+
+    // 완성된 파일 (진행률 조회 응답에는 포함하지 않음)
+    @Getter(AccessLevel.NONE)
+    private volatile Path file;
+
+    public ExportJob(String jobId, Format format, Long schoolId, String type, Long classroomId) {
+        this.jobId = jobId;
+        this.format = format;
+        this.schoolId = schoolId;
+        this.type = type;
+        this.classroomId = classroomId;
+    }
+
+    @Override
+    public void rowsWritten(int count) {
+        rowsWritten.addAndGet(count);
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    // 진행률 (0 ~ 100)
+    public int getPercent() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        return totalRows > 0 ? (int) Math.min(99, rowsWritten.get() * 100 / totalRows) : 0;
+    }
+
+    // 완료된 작업의 파일 다운로드 주소
+    public String getDownloadUrl() {
+        return status == Status.COMPLETED ? "/device/export/jobs/" + jobId + "/file" : null;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    void markRunning(long totalRows) {
+        this.totalRows = totalRows;
+        status = Status.RUNNING;
+    }
+
+    void markCompleted(Path file, long fileSize) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.message = "출력 완료 (" + rowsWritten.get() + "개 장비)";
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,16 @@
+package com.inet.service;
+
+/**
+ * 장비 출력 진행 상황 콜백
+ * 백그라운드 출력 작업이 행 단위 진행률을 보고하는 데 사용합니다.
+ */
+public interface ExportProgress {
+
+    // 진행 상황을 받지 않는 경우 (바로 내려받는 출력)
+    ExportProgress NONE = new ExportProgress() {
+    };
+
+    // 장비 count 개를 출력함 (전체 학교 출력 중 여러 스레드에서 동시에 호출될 수 있음)
+    default void rowsWritten(int count) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+/**
+ * 업로드 파일 검증(dry-run)에서 발견한 행 단위 문제
+ */
+@Getter
+public class ImportIssue {
+
+    public enum Level {
+        // 업로드하면 실패하는 문제
+        ERROR,
+        // 업로드는 되지만 확인이 필요한 내용 (빈 값으로 저장, 새 교실 생성 등)
+        WARNING
+    }
+
+    // 엑셀 행 번호 (헤더가 1번째 행)
+    private final int row;
+    private final Level level;
+    // 문제가 있는 컬럼명 (행 전체 문제면 null)
+    private final String column;
+    private final String message;
+
+    public ImportIssue(int row, Level level, String column, String message) {
+        this.row = row;
+        this.level = level;
+        this.column = column;
+        this.message = message;
+    }
+
+    public static ImportIssue error(int row, String column, String message) {
+        return new ImportIssue(row, Level.ERROR, column, message);
+    }
+
+    public static ImportIssue warning(int row, String column, String message) {
+        return new ImportIssue(row, Level.WARNING, column, message);
+    }
+}
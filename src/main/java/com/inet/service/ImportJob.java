@@ -0,0 +1,93 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 장비 엑셀 업로드 작업의 상태
+ * 작업 스레드가 진행 상황을 기록하고, 요청 스레드는 진행률 조회/SSE 로 읽어 갑니다.
+ */
+@Getter
+public class ImportJob implements ImportProgress {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    public enum Mode {
+        // 모든 행을 새 장비로 등록
+        APPEND,
+        // 기존 장비와 대조하여 바뀐 부분만 반영
+        RECONCILE
+    }
+
+    private final String jobId;
+    private final Long schoolId;
+    private final String filename;
+    private final Mode mode;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    private final AtomicInteger rowsParsed = new AtomicInteger();
+    private final AtomicInteger rowsResolved = new AtomicInteger();
+    private final AtomicInteger rowsPersisted = new AtomicInteger();
+
+    public ImportJob(String jobId, Long schoolId, String filename, Mode mode) {
+        this.jobId = jobId;
+        this.schoolId = schoolId;
+        this.filename = filename;
+        this.mode = mode;
+    }
+
+    @Override
+    public void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    @Override
+    public void rowResolved() {
+        rowsResolved.incrementAndGet();
+    }
+
+    @Override
+    public void rowsPersisted(int count) {
+        rowsPersisted.addAndGet(count);
+    }
+
+    public int getRowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public int getRowsResolved() {
+        return rowsResolved.get();
+    }
+
+    public int getRowsPersisted() {
+        return rowsPersisted.get();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void markCompleted(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String message) {
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+}
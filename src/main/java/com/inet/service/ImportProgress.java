@@ -0,0 +1,24 @@
+package com.inet.service;
+
+/**
+ * 장비 엑셀 업로드 진행 상황 콜백
+ * 비동기 업로드 작업이 행 단위 진행률을 보고하는 데 사용합니다.
+ */
+public interface ImportProgress {
+
+    // 진행 상황을 받지 않는 경우 (동기 업로드)
+    ImportProgress NONE = new ImportProgress() {
+    };
+
+    // 데이터 행 하나를 파싱/검증함 (병렬 파싱 중 여러 스레드에서 동시에 호출될 수 있음)
+    default void rowParsed() {
+    }
+
+    // 파싱된 행 하나를 장비로 변환함 (취급자/관리번호/교실 매칭 포함)
+    default void rowResolved() {
+    }
+
+    // 장비 count 개를 저장함
+    default void rowsPersisted(int count) {
+    }
+}
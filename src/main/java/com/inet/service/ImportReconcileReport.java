@@ -0,0 +1,74 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 재업로드 대조(reconcile) 결과
+ * 업로드 행을 기존 장비와 맞춰 본 분류별 건수와, 변경된 행 번호, 고유번호가 모호해 건너뛴 행 번호, 파일에 없는 기존 장비 목록을 담습니다.
+ */
+@Getter
+public class ImportReconcileReport {
+
+    // 기존 장비와 매칭되지 않아 새로 등록한 행 수
+    private int inserted;
+    // 기존 장비와 매칭되어 값이 바뀐 행 수
+    private int updated;
+    // 기존 장비와 매칭되었고 값이 같은 행 수
+    private int unchanged;
+    // 변경된 엑셀 행 번호
+    private final List<Integer> updatedRows = new ArrayList<>();
+    // 고유번호가 여러 기존 장비에 해당해 반영하지 않은 엑셀 행 번호
+    private final List<Integer> ambiguousRows = new ArrayList<>();
+    // 파일에 없는 기존 장비 (삭제하지 않고 알리기만 함)
+    private final List<String> missingDevices = new ArrayList<>();
+
+    public int getMissing() {
+        return missingDevices.size();
+    }
+
+    public List<Integer> getUpdatedRows() {
+        return Collections.unmodifiableList(updatedRows);
+    }
+
+    public int getAmbiguous() {
+        return ambiguousRows.size();
+    }
+
+    public List<Integer> getAmbiguousRows() {
+        return Collections.unmodifiableList(ambiguousRows);
+    }
+
+    public List<String> getMissingDevices() {
+        return Collections.unmodifiableList(missingDevices);
+    }
+
+    void inserted(int count) {
+        inserted += count;
+    }
+
+    void updated(int row) {
+        updated++;
+        updatedRows.add(row);
+    }
+
+    void unchanged() {
+        unchanged++;
+    }
+
+    void ambiguous(int row) {
+        ambiguousRows.add(row);
+    }
+
+    void missing(String device) {
+        missingDevices.add(device);
+    }
+
+    public String summary() {
+        return "추가 " + inserted + "개, 변경 " + updated + "개, 동일 " + unchanged + "개, 고유번호가 모호해 건너뜀 " + getAmbiguous()
+                + "개, 파일에 없는 기존 장비 " + getMissing() + "개";
+    }
+}
@@ -0,0 +1,179 @@
+package com.inet.service;
+
+import com.inet.entity.Classroom;
+import com.inet.entity.Manage;
+import com.inet.entity.Operator;
+import com.inet.entity.School;
+import com.inet.repository.ClassroomRepository;
+import com.inet.repository.ManageRepository;
+import com.inet.repository.OperatorRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 엑셀 업로드 한 번 동안 사용하는 취급자/관리번호/교실 조회 컨텍스트
+ * 학교의 기준 데이터를 시작할 때 한 번만 읽어 메모리에서 행을 매칭하고,
+ * 없는 항목은 새로 만들어 두었다가 {@link #saveNewEntities()} 에서 한꺼번에 저장합니다.
+ * 교실은 해당 학교의 교실 중에서만 찾습니다.
+ * 나눠 커밋하는 업로드에서는 업로드 전체에 하나만 만들어 묶음마다 재사용합니다.
+ */
+public class ImportResolutionContext {
+
+    private final School school;
+    private final OperatorRepository operatorRepository;
+    private final ManageRepository manageRepository;
+    private final ClassroomRepository classroomRepository;
+
+    private final Map<String, Operator> operators = new HashMap<>();
+    private final Map<String, Manage> manages = new HashMap<>();
+    private final Map<String, Classroom> classrooms = new HashMap<>();
+
+    // 아직 저장하지 않은 신규/변경 항목
+    private final List<Operator> newOperators = new ArrayList<>();
+    private final List<Manage> pendingManages = new ArrayList<>();
+    private final List<Classroom> newClassrooms = new ArrayList<>();
+
+    public ImportResolutionContext(School school,
+                                   OperatorRepository operatorRepository,
+                                   ManageRepository manageRepository,
+                                   ClassroomRepository classroomRepository) {
+        this.school = school;
+        this.operatorRepository = operatorRepository;
+        this.manageRepository = manageRepository;
+        this.classroomRepository = classroomRepository;
+
+        for (Operator operator : operatorRepository.findBySchool(school)) {
+            operators.putIfAbsent(operatorKey(operator.getName(), operator.getPosition()), operator);
+        }
+        // 학교가 지정되지 않은 기존 관리번호도 이 학교의 것으로 사용할 수 있음
+        for (Manage manage : manageRepository.findBySchoolOrSchoolIsNull(school)) {
+            manages.merge(manageKey(manage.getManageCate(), manage.getYear(), manage.getManageNum()), manage,
+                    (existing, candidate) -> existing.getSchool() != null ? existing : candidate);
+        }
+        for (Classroom classroom : classroomRepository.findBySchoolSchoolId(school.getSchoolId())) {
+            if (classroom.getRoomName() != null) {
+                classrooms.putIfAbsent(classroom.getRoomName().trim(), classroom);
+            }
+        }
+    }
+
+    public School getSchool() {
+        return school;
+    }
+
+    /**
+     * 이름과 직위로 취급자를 찾고, 없으면 새로 만듭니다.
+     */
+    public Operator resolveOperator(String name, String position) {
+        return operators.computeIfAbsent(operatorKey(name, position), key -> {
+            Operator op = new Operator();
+            op.setName(name);
+            op.setPosition(position);
+            op.setSchool(school);
+            newOperators.add(op);
+            return op;
+        });
+    }
+
+    /**
+     * 관리번호로 Manage 를 찾고, 없으면 새로 만듭니다. 학교가 없는 기존 항목은 이 학교로 지정합니다.
+     */
+    public Manage resolveManage(String manageCate, Integer year, Long manageNum) {
+        Manage manage = manages.computeIfAbsent(manageKey(manageCate, year, manageNum), key -> {
+            Manage m = new Manage();
+            m.setManageCate(manageCate);
+            m.setYear(year);
+            m.setManageNum(manageNum);
+            m.setSchool(school);
+            pendingManages.add(m);
+            return m;
+        });
+        if (manage.getSchool() == null) {
+            manage.setSchool(school);
+            pendingManages.add(manage);
+        }
+        return manage;
+    }
+
+    /**
+     * 교실명으로 이 학교의 교실을 찾고, 없으면 새로 만듭니다.
+     */
+    public Classroom resolveClassroom(String roomName) {
+        return classrooms.computeIfAbsent(roomName, key -> {
+            Classroom classroom = new Classroom();
+            classroom.setRoomName(roomName);
+            classroom.setSchool(school);
+            classroom.setXCoordinate(0);
+            classroom.setYCoordinate(0);
+            classroom.setWidth(100);
+            classroom.setHeight(100);
+            newClassrooms.add(classroom);
+            return classroom;
+        });
+    }
+
+    /**
+     * 이름과 직위가 같은 취급자가 이미 있는지 확인합니다. (새로 만들지 않음)
+     */
+    public boolean hasOperator(String name, String position) {
+        return operators.containsKey(operatorKey(name, position));
+    }
+
+    /**
+     * 관리번호가 이미 있는지 확인합니다. (새로 만들지 않음)
+     */
+    public boolean hasManage(String manageCate, Integer year, Long manageNum) {
+        return manages.containsKey(manageKey(manageCate, year, manageNum));
+    }
+
+    /**
+     * 이 학교에 같은 이름의 교실이 이미 있는지 확인합니다. (새로 만들지 않음)
+     */
+    public boolean hasClassroom(String roomName) {
+        return classrooms.containsKey(roomName);
+    }
+
+    /**
+     * 아직 저장되지 않은(이번 업로드에서 새로 만든) 항목인지 확인합니다.
+     */
+    public boolean isNew(Classroom classroom) {
+        return classroom.getClassroomId() == null;
+    }
+
+    /**
+     * 업로드 중 새로 만들거나 변경한 취급자/관리번호/교실을 한꺼번에 저장합니다.
+     * 장비를 저장하기 전에 호출해야 합니다.
+     * 저장된 항목으로 조회 맵을 갱신하므로, 여러 트랜잭션에 나눠 등록할 때도 같은 컨텍스트를 계속 사용할 수 있습니다.
+     */
+    public void saveNewEntities() {
+        if (!newOperators.isEmpty()) {
+            for (Operator saved : operatorRepository.saveAll(newOperators)) {
+                operators.put(operatorKey(saved.getName(), saved.getPosition()), saved);
+            }
+            newOperators.clear();
+        }
+        if (!pendingManages.isEmpty()) {
+            for (Manage saved : manageRepository.saveAll(pendingManages)) {
+                manages.put(manageKey(saved.getManageCate(), saved.getYear(), saved.getManageNum()), saved);
+            }
+            pendingManages.clear();
+        }
+        if (!newClassrooms.isEmpty()) {
+            for (Classroom saved : classroomRepository.saveAll(newClassrooms)) {
+                classrooms.put(saved.getRoomName(), saved);
+            }
+            newClassrooms.clear();
+        }
+    }
+
+    private static String operatorKey(String name, String position) {
+        return name + '\u0000' + position;
+    }
+
+    private static String manageKey(String manageCate, Integer year, Long manageNum) {
+        return manageCate + '\u0000' + year + '\u0000' + manageNum;
+    }
+}
@@ -0,0 +1,52 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 업로드 파일 검증(dry-run) 결과
+ * 파일 전체를 한 번 읽으면서 발견한 모든 행의 오류/경고를 행 순서대로 담습니다.
+ */
+@Getter
+public class ImportValidationReport {
+
+    private final String filename;
+    // 헤더를 제외한 데이터 행 수 (빈 행 포함)
+    private int totalRows;
+    // 빈 행을 제외하고 오류가 없는 행 수
+    private int validRows;
+    private int errorCount;
+    private int warningCount;
+    private final List<ImportIssue> issues = new ArrayList<>();
+
+    public ImportValidationReport(String filename) {
+        this.filename = filename;
+    }
+
+    public boolean isValid() {
+        return errorCount == 0;
+    }
+
+    public List<ImportIssue> getIssues() {
+        return Collections.unmodifiableList(issues);
+    }
+
+    void add(ImportIssue issue) {
+        issues.add(issue);
+        if (issue.getLevel() == ImportIssue.Level.ERROR) {
+            errorCount++;
+        } else {
+            warningCount++;
+        }
+    }
+
+    void rowRead(boolean valid) {
+        totalRows++;
+        if (valid) {
+            validRows++;
+        }
+    }
+}
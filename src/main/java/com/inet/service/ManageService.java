@@ -17,17 +17,33 @@ public class ManageService {
     private final ManageRepository manageRepository;
     private final SchoolRepository schoolRepository;
     private final DeviceRepository deviceRepository;
+    private final ReferenceDataCache referenceDataCache;
 
+    // 카테고리/연도 목록은 기준 데이터 캐시 사용 (관리번호가 바뀌면 캐시가 지워짐)
     public List<String> getManageCatesBySchool(Long schoolId) {
-        School school = schoolRepository.findById(schoolId)
-            .orElseThrow(() -> new IllegalArgumentException("School not found"));
-        return manageRepository.findDistinctManageCateBySchool(school);
+        return referenceDataCache.getManageCates(schoolId, () -> {
+            School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("School not found"));
+            return manageRepository.findDistinctManageCateBySchool(school);
+        });
     }
 
     public List<Integer> getYearsBySchoolAndManageCate(Long schoolId, String manageCate) {
-        School school = schoolRepository.findById(schoolId)
-            .orElseThrow(() -> new IllegalArgumentException("School not found"));
-        return manageRepository.findDistinctYearBySchoolAndManageCate(school, manageCate);
+        return referenceDataCache.getManageYears(schoolId, manageCate, () -> {
+            School school = schoolRepository.findById(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("School not found"));
+            return manageRepository.findDistinctYearBySchoolAndManageCate(school, manageCate);
+        });
+    }
+
+    // 전체 학교의 카테고리 목록
+    public List<String> getAllManageCates() {
+        return referenceDataCache.getManageCates(null, manageRepository::findDistinctManageCate);
+    }
+
+    // 전체 학교의 연도 목록
+    public List<Integer> getAllYears() {
+        return referenceDataCache.getManageYears(null, null, manageRepository::findDistinctYear);
     }
 
     public Long getNextManageNum(Long schoolId, String manageCate, Integer year) {
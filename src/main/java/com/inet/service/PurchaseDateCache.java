@@ -0,0 +1,39 @@
+package com.inet.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 업로드 한 번 동안 도입일자 문자열의 변환 결과를 기억하는 캐시
+ * 장비 목록에는 같은 도입일자가 수천 번씩 반복되므로 서로 다른 문자열마다 한 번만 변환합니다.
+ * 병렬 파싱 중 여러 스레드에서 동시에 사용할 수 있습니다.
+ */
+public final class PurchaseDateCache {
+
+    // 기억할 최대 문자열 수 (행마다 다른 값이 적힌 파일에서 메모리가 계속 늘지 않도록 제한)
+    private static final int MAX_ENTRIES = 10_000;
+
+    // 형식을 알 수 없는 값 표시 (ConcurrentHashMap 은 null 값을 저장할 수 없음)
+    private static final LocalDate UNPARSEABLE = LocalDate.MIN;
+
+    private final ConcurrentHashMap<String, LocalDate> dates = new ConcurrentHashMap<>();
+
+    /**
+     * 도입일자 문자열을 날짜로 변환합니다.
+     * @param value 셀 문자열
+     * @return 날짜 (형식을 알 수 없으면 null)
+     */
+    public LocalDate parse(String value) {
+        LocalDate date = dates.get(value);
+        if (date == null) {
+            date = DeviceRowParser.parseLocalDate(value);
+            if (date == null) {
+                date = UNPARSEABLE;
+            }
+            if (dates.size() < MAX_ENTRIES) {
+                dates.putIfAbsent(value, date);
+            }
+        }
+        return date == UNPARSEABLE ? null : date;
+    }
+}
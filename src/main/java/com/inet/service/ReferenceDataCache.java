@@ -0,0 +1,195 @@
+package com.inet.service;
+
+import com.inet.entity.Classroom;
+import com.inet.entity.Device;
+import com.inet.entity.Manage;
+import com.inet.entity.School;
+import jakarta.annotation.PreDestroy;
+import org.cache2k.Cache;
+import org.cache2k.Cache2kBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 기준 데이터 캐시 (학교 목록, 장비 타입 목록, 학교별 교실 목록, 학교별 관리번호 카테고리/연도 목록)
+ * 목록/등록/수정 화면과 관리번호 입력 API 가 요청마다 같은 전체 조회와 DISTINCT 조회를 반복하지 않도록 cache2k 로 보관합니다.
+ * 캐시마다 최대 항목 수와 보관 시간이 있고, 해당 엔티티가 저장/수정/삭제되면 SchoolDataChangeListener 가 관련 항목을 지웁니다.
+ * 트랜잭션 안에서 바뀐 경우에는 트랜잭션이 끝난 뒤에 지워, 커밋 전 데이터를 읽은 결과가 캐시에 남지 않도록 합니다.
+ * 엔티티 리스너가 의존하므로 리포지토리에 의존하지 않고, 조회는 호출하는 서비스가 넘겨줍니다.
+ * 반환하는 목록은 수정할 수 없으며, 목록 안의 엔티티도 화면 표시용으로만 사용해야 합니다.
+ */
+@Component
+public class ReferenceDataCache {
+
+    // 학교 구분 없는 목록의 키 (cache2k 는 null 키를 허용하지 않음)
+    private static final Long ALL = -1L;
+
+    private final Cache<Long, List<School>> schools;
+    private final Cache<Long, List<String>> deviceTypes;
+    private final Cache<Long, List<Classroom>> classrooms;
+    private final Cache<Long, List<String>> manageCates;
+    // 키: 학교 ID + ":" + 카테고리 (학교 구분 없는 목록은 "all")
+    private final Cache<String, List<Integer>> manageYears;
+
+    public ReferenceDataCache(@Value("${inet.cache.reference-data.max-entries:1000}") long maxEntries,
+                              @Value("${inet.cache.reference-data.expire-minutes:10}") long expireMinutes) {
+        this.schools = new Cache2kBuilder<Long, List<School>>() {}
+                .name("referenceData.schools")
+                .entryCapacity(1)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        this.deviceTypes = new Cache2kBuilder<Long, List<String>>() {}
+                .name("referenceData.deviceTypes")
+                .entryCapacity(1)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        this.classrooms = new Cache2kBuilder<Long, List<Classroom>>() {}
+                .name("referenceData.classrooms")
+                .entryCapacity(maxEntries)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        this.manageCates = new Cache2kBuilder<Long, List<String>>() {}
+                .name("referenceData.manageCates")
+                .entryCapacity(maxEntries)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+        this.manageYears = new Cache2kBuilder<String, List<Integer>>() {}
+                .name("referenceData.manageYears")
+                .entryCapacity(maxEntries)
+                .expireAfterWrite(expireMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public List<School> getSchools(Supplier<List<School>> loader) {
+        return schools.computeIfAbsent(ALL, key -> unmodifiable(loader.get()));
+    }
+
+    public List<String> getDeviceTypes(Supplier<List<String>> loader) {
+        return deviceTypes.computeIfAbsent(ALL, key -> unmodifiable(loader.get()));
+    }
+
+    /**
+     * @param schoolId 학교 ID (null 이면 전체 교실)
+     */
+    public List<Classroom> getClassrooms(Long schoolId, Supplier<List<Classroom>> loader) {
+        return classrooms.computeIfAbsent(keyOf(schoolId), key -> unmodifiable(loader.get()));
+    }
+
+    /**
+     * @param schoolId 학교 ID (null 이면 전체 학교의 카테고리)
+     */
+    public List<String> getManageCates(Long schoolId, Supplier<List<String>> loader) {
+        return manageCates.computeIfAbsent(keyOf(schoolId), key -> unmodifiable(loader.get()));
+    }
+
+    /**
+     * @param schoolId 학교 ID (null 이면 전체 학교의 연도, 이때 카테고리는 무시)
+     * @param manageCate 관리번호 카테고리
+     */
+    public List<Integer> getManageYears(Long schoolId, String manageCate, Supplier<List<Integer>> loader) {
+        String key = schoolId != null ? schoolId + ":" + manageCate : "all";
+        return manageYears.computeIfAbsent(key, k -> unmodifiable(loader.get()));
+    }
+
+    /**
+     * 엔티티가 바뀌었음을 기록합니다. 트랜잭션 안이면 트랜잭션이 끝난 뒤에 한 번만 지웁니다.
+     * @param entity 바뀐 엔티티
+     * @param schoolId 엔티티가 속한 학교 ID (알 수 없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public void changed(Object entity, Long schoolId) {
+        Class<?> entityType = cachedTypeOf(entity);
+        if (entityType == null) {
+            return;
+        }
+        Change change = new Change(entityType, schoolId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(change);
+            return;
+        }
+        Set<Change> changes = (Set<Change>) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            Set<Change> pending = new HashSet<>();
+            changes = pending;
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReferenceDataCache.this);
+                    pending.forEach(ReferenceDataCache.this::evict);
+                }
+            });
+        }
+        changes.add(change);
+    }
+
+    // 캐시한 목록에 영향을 주는 엔티티 타입 (그 외에는 null)
+    private static Class<?> cachedTypeOf(Object entity) {
+        if (entity instanceof School) {
+            return School.class;
+        } else if (entity instanceof Classroom) {
+            return Classroom.class;
+        } else if (entity instanceof Device) {
+            return Device.class;
+        } else if (entity instanceof Manage) {
+            return Manage.class;
+        }
+        return null;
+    }
+
+    private void evict(Change change) {
+        if (change.entityType() == School.class) {
+            schools.clear();
+            // 캐시된 교실이 학교 엔티티를 함께 가지고 있으므로 학교명 등이 바뀌면 교실 목록도 다시 읽음
+            classrooms.clear();
+        } else if (change.entityType() == Classroom.class) {
+            evict(classrooms, change.schoolId());
+        } else if (change.entityType() == Device.class) {
+            deviceTypes.clear();
+        } else if (change.entityType() == Manage.class) {
+            evict(manageCates, change.schoolId());
+            manageYears.clear();
+        }
+    }
+
+    // 학교 목록과 전체 목록을 지움 (학교를 모르면 모두 지움)
+    private static void evict(Cache<Long, ?> cache, Long schoolId) {
+        if (schoolId == null) {
+            cache.clear();
+            return;
+        }
+        cache.remove(schoolId);
+        cache.remove(ALL);
+    }
+
+    private static Long keyOf(Long schoolId) {
+        return schoolId != null ? schoolId : ALL;
+    }
+
+    // DISTINCT 결과에 null 이 있을 수 있으므로 List.copyOf 대신 사용
+    private static <T> List<T> unmodifiable(List<T> list) {
+        return Collections.unmodifiableList(new ArrayList<>(list));
+    }
+
+    @PreDestroy
+    public void close() {
+        schools.close();
+        deviceTypes.close();
+        classrooms.close();
+        manageCates.close();
+        manageYears.close();
+    }
+
+    private record Change(Class<?> entityType, Long schoolId) {
+    }
+}
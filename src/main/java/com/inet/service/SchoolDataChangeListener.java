@@ -0,0 +1,53 @@
+package com.inet.service;
+
+import com.inet.entity.Classroom;
+import com.inet.entity.Device;
+import com.inet.entity.Manage;
+import com.inet.entity.Operator;
+import com.inet.entity.School;
+import com.inet.entity.Uid;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 학교 데이터 변경 감지 엔티티 리스너
+ * 엔티티가 저장/수정/삭제되면 그 엔티티가 속한 학교의 데이터 버전을 올리고, 관련된 기준 데이터 캐시 항목을 지웁니다.
+ * (Hibernate 가 Spring 빈으로 생성하므로 의존성을 주입받을 수 있음)
+ */
+@Component
+@RequiredArgsConstructor
+public class SchoolDataChangeListener {
+
+    private final SchoolDataVersions schoolDataVersions;
+    private final ReferenceDataCache referenceDataCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long schoolId = schoolIdOf(entity);
+        schoolDataVersions.changed(schoolId);
+        referenceDataCache.changed(entity, schoolId);
+    }
+
+    private Long schoolIdOf(Object entity) {
+        School school = null;
+        if (entity instanceof School s) {
+            return s.getSchoolId();
+        } else if (entity instanceof Device device) {
+            school = device.getSchool();
+        } else if (entity instanceof Classroom classroom) {
+            school = classroom.getSchool();
+        } else if (entity instanceof Operator operator) {
+            school = operator.getSchool();
+        } else if (entity instanceof Manage manage) {
+            school = manage.getSchool(); // 지연 로딩 프록시여도 ID 는 초기화 없이 읽힘
+        } else if (entity instanceof Uid uid) {
+            school = uid.getSchool();
+        }
+        return school != null ? school.getSchoolId() : null;
+    }
+}
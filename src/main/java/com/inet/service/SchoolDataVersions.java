@@ -0,0 +1,96 @@
+package com.inet.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 학교별 데이터 버전
+ * 장비/교실/취급자/관리번호/고유번호가 바뀔 때마다 해당 학교의 버전이 올라가며,
+ * 엑셀 출력 캐시는 (출력 조건, 버전)이 같으면 이전에 만든 파일을 그대로 보냅니다.
+ * 트랜잭션 안에서 바뀐 경우에는 커밋된 뒤에 버전을 올려, 커밋 전 데이터로 만든 파일이 새 버전으로 저장되지 않도록 합니다.
+ * 서버를 다시 시작하면 버전이 처음부터 시작하므로 시작 시각(epoch)을 함께 사용해야 합니다.
+ */
+@Component
+public class SchoolDataVersions {
+
+    // 학교 ID 가 없는 변경과 전체 학교 출력에 사용하는 키
+    private static final Long ALL_SCHOOLS = -1L;
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Long, Version> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 학교의 현재 데이터 버전을 반환합니다.
+     * @param schoolId 학교 ID (null 이면 전체 학교 - 어느 학교가 바뀌어도 올라가는 버전)
+     */
+    public Version current(Long schoolId) {
+        Long key = schoolId != null ? schoolId : ALL_SCHOOLS;
+        return versions.computeIfAbsent(key, k -> new Version(0, epoch));
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 학교의 데이터가 바뀌었음을 기록합니다. 트랜잭션 안이면 트랜잭션이 끝난 뒤에 한 번만 버전을 올립니다.
+     * @param schoolId 학교 ID (알 수 없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public void changed(Long schoolId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(schoolId);
+            return;
+        }
+        Set<Long> changedSchools = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (changedSchools == null) {
+            Set<Long> schools = new HashSet<>();
+            changedSchools = schools;
+            TransactionSynchronizationManager.bindResource(this, schools);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SchoolDataVersions.this);
+                    // 롤백된 경우에도 올려 둠 (캐시를 한 번 더 만드는 것 외에는 문제 없음)
+                    schools.forEach(SchoolDataVersions.this::bump);
+                }
+            });
+        }
+        changedSchools.add(schoolId);
+    }
+
+    private void bump(Long schoolId) {
+        long now = System.currentTimeMillis();
+        if (schoolId != null) {
+            versions.merge(schoolId, new Version(1, now), (old, v) -> new Version(old.number + 1, now));
+        }
+        versions.merge(ALL_SCHOOLS, new Version(1, now), (old, v) -> new Version(old.number + 1, now));
+    }
+
+    /**
+     * 데이터 버전 (번호와 마지막으로 바뀐 시각)
+     */
+    public static final class Version {
+        private final long number;
+        private final long changedAt;
+
+        Version(long number, long changedAt) {
+            this.number = number;
+            this.changedAt = changedAt;
+        }
+
+        public long getNumber() {
+            return number;
+        }
+
+        public long getChangedAt() {
+            return changedAt;
+        }
+    }
+}
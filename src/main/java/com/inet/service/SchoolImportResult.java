@@ -0,0 +1,35 @@
+package com.inet.service;
+
+import lombok.Getter;
+
+/**
+ * 일괄 업로드에서 학교(시트 또는 파일) 하나의 처리 결과
+ */
+@Getter
+public class SchoolImportResult {
+
+    // 시트 이름 또는 압축 파일 안의 파일 경로
+    private final String source;
+    private final Long schoolId;
+    private final String schoolName;
+    private final boolean success;
+    private final int savedCount;
+    private final String message;
+
+    private SchoolImportResult(String source, Long schoolId, String schoolName, boolean success, int savedCount, String message) {
+        this.source = source;
+        this.schoolId = schoolId;
+        this.schoolName = schoolName;
+        this.success = success;
+        this.savedCount = savedCount;
+        this.message = message;
+    }
+
+    public static SchoolImportResult success(String source, Long schoolId, String schoolName, int savedCount) {
+        return new SchoolImportResult(source, schoolId, schoolName, true, savedCount, savedCount + "개 장비 등록");
+    }
+
+    public static SchoolImportResult failure(String source, Long schoolId, String schoolName, String message) {
+        return new SchoolImportResult(source, schoolId, schoolName, false, 0, message);
+    }
+}
@@ -16,6 +16,7 @@ import lombok.extern.log4j.Log4j2;
 public class SchoolService {
     
     private final SchoolRepository schoolRepository;
+    private final ReferenceDataCache referenceDataCache;
     
     // Create
     public School saveSchool(School school) {
@@ -23,10 +24,12 @@ public class SchoolService {
         return schoolRepository.save(school);
     }
     
-    // Read
+    // Read (기준 데이터 캐시 사용 - 학교가 바뀌면 캐시가 지워짐)
     public List<School> getAllSchools() {
-        log.info("Getting all schools");
-        return schoolRepository.findAll();
+        return referenceDataCache.getSchools(() -> {
+            log.info("Getting all schools");
+            return schoolRepository.findAll();
+        });
     }
     
     public Optional<School> getSchoolById(Long id) {
@@ -0,0 +1,70 @@
+package com.inet.service;
+
+import com.inet.entity.School;
+import com.inet.repository.UidCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * (학교, 카테고리, 제조년)별 Uid 번호 발급기
+ * 카운터 행을 한 문장으로 만들거나 올리면서 잠그고 필요한 개수만큼 번호를 한 번에 예약하므로,
+ * 대량 업로드도 키마다 몇 번의 쿼리로 번호를 받을 수 있고 동시 등록 시에도 번호가 겹치지 않습니다.
+ * 예약은 호출한 트랜잭션에 포함되어 롤백 시 함께 취소되므로 발급 번호에 빈틈이 생기지 않습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class UidAllocator {
+
+    private final UidCounterRepository uidCounterRepository;
+
+    /**
+     * 연속된 번호를 예약합니다.
+     * 카운터 행은 트랜잭션이 끝날 때까지 잠기므로, 한 트랜잭션에서 여러 키를 예약할 때는
+     * 교착 상태를 피하기 위해 (카테고리, 제조년) 순서대로 호출해야 합니다.
+     * @param school 학교
+     * @param cate 카테고리
+     * @param mfgYear 제조년 (2자리 또는 "xx")
+     * @param count 예약할 번호 수
+     * @return 예약된 번호 묶음
+     */
+    public UidBlock reserve(School school, String cate, String mfgYear, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("예약할 번호 수는 1 이상이어야 합니다.");
+        }
+        Long schoolId = school.getSchoolId();
+
+        uidCounterRepository.reserve(schoolId, cate, mfgYear, firstFreeNumber(schoolId, cate, mfgYear), count);
+        long next = uidCounterRepository.findNextNumber(schoolId, cate, mfgYear)
+                .orElseThrow(() -> new IllegalStateException("Uid 카운터를 생성하지 못했습니다: " + cate + ", " + mfgYear));
+        long first = next - count;
+
+        log.info("Reserved Uid numbers {} ~ {} for school: {}, cate: {}, mfgYear: {}",
+                first, first + count - 1, schoolId, cate, mfgYear);
+        return new UidBlock(first, count);
+    }
+
+    /**
+     * 사용자가 직접 지정한 번호를 카운터에 반영합니다. (이후 발급 번호가 겹치지 않도록)
+     * @param school 학교
+     * @param cate 카테고리
+     * @param mfgYear 제조년
+     * @param idNumber 사용한 번호
+     */
+    public void markUsed(School school, String cate, String mfgYear, Long idNumber) {
+        Long schoolId = school.getSchoolId();
+        uidCounterRepository.raiseTo(schoolId, cate, mfgYear, firstFreeNumber(schoolId, cate, mfgYear), idNumber);
+    }
+
+    // 처음 쓰는 키면 기존 uid 의 최대 번호 다음부터 시작 (카운터가 이미 있으면 사용되지 않는 값)
+    // 없는 카운터 행을 잠금 조회하면 갭 잠금 때문에 동시에 같은 키를 만들 때 교착이 생기므로,
+    // 잠그지 않고 조회한 뒤 행 생성과 잠금은 INSERT ... ON DUPLICATE KEY UPDATE 한 문장으로 처리
+    private Long firstFreeNumber(Long schoolId, String cate, String mfgYear) {
+        return uidCounterRepository.findNextNumber(schoolId, cate, mfgYear).isPresent()
+                ? 1L
+                : uidCounterRepository.findFirstFreeNumber(schoolId, cate, mfgYear);
+    }
+}
@@ -0,0 +1,32 @@
+package com.inet.service;
+
+/**
+ * 카운터에서 예약한 연속 Uid 번호 묶음
+ * 예약한 트랜잭션 안에서 메모리로만 번호를 나눠 주며 스레드 간에 공유하지 않습니다.
+ */
+public class UidBlock {
+
+    private final long first;
+    private final int size;
+    private int used = 0;
+
+    public UidBlock(long first, int size) {
+        this.first = first;
+        this.size = size;
+    }
+
+    /**
+     * 다음 번호를 꺼냅니다.
+     * @return 예약된 번호
+     */
+    public Long next() {
+        if (used >= size) {
+            throw new IllegalStateException("예약된 Uid 번호를 모두 사용했습니다. (시작 번호: " + first + ", 개수: " + size + ")");
+        }
+        return first + used++;
+    }
+
+    public int remaining() {
+        return size - used;
+    }
+}
@@ -0,0 +1,162 @@
+package com.inet.service;
+
+import com.inet.entity.UidCategoryRule;
+import com.inet.repository.UidCategoryRuleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 장비의 UID 카테고리를 정하는 분류기
+ * uid_category_rule 테이블의 규칙을 불변 조회 구조({@link UidCategoryRules})로 한 번 변환해 두고 사용하며,
+ * 규칙을 바꾸면 트랜잭션이 커밋된 뒤에 서버 재시작 없이 다시 읽어 통째로 교체합니다.
+ * 엑셀 업로드, 장비 등록/수정, 학교 단위 재분류가 모두 이 분류기를 사용합니다.
+ */
+@Slf4j
+@Service
+public class UidCategoryClassifier {
+
+    private final UidCategoryRuleRepository ruleRepository;
+    private final TransactionTemplate reloadTransaction;
+
+    // 규칙을 DB 에서 읽기 전까지는 기본 규칙 사용
+    private volatile UidCategoryRules rules = UidCategoryRules.compile(defaultRules());
+
+    public UidCategoryClassifier(UidCategoryRuleRepository ruleRepository, PlatformTransactionManager transactionManager) {
+        this.ruleRepository = ruleRepository;
+        // 커밋 직후(afterCommit)에는 끝난 트랜잭션에 참여하지 않도록 새 트랜잭션에서 다시 읽음
+        this.reloadTransaction = new TransactionTemplate(transactionManager);
+        this.reloadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reloadTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 장비 타입과 관리 카테고리로 UID 카테고리를 결정합니다.
+     * @param type 장비 타입
+     * @param manageCate 관리 카테고리 (관리번호가 없으면 null)
+     * @return UID 카테고리
+     */
+    public String classify(String type, String manageCate) {
+        return rules.classify(type, manageCate);
+    }
+
+    /**
+     * 현재 규칙을 반환합니다. 여러 건을 분류할 때는 같은 규칙으로 처리되도록 한 번 받아서 사용합니다.
+     */
+    public UidCategoryRules current() {
+        return rules;
+    }
+
+    /**
+     * DB 의 규칙을 다시 읽어 교체합니다.
+     * @return 새 규칙
+     */
+    @Transactional(readOnly = true)
+    public UidCategoryRules reload() {
+        UidCategoryRules reloaded = UidCategoryRules.compile(ruleRepository.findAll());
+        rules = reloaded;
+        log.info("UID 카테고리 규칙 {}개를 읽었습니다.", reloaded.getRuleCount());
+        return reloaded;
+    }
+
+    @Transactional(readOnly = true)
+    public List<UidCategoryRule> getRules() {
+        return ruleRepository.findAllByOrderByDeviceTypeAscManageCateAsc();
+    }
+
+    /**
+     * 규칙을 추가하거나 수정하고, 커밋된 뒤 분류기에 반영합니다.
+     * 같은 장비 타입/관리 카테고리의 규칙(관리 카테고리가 없으면 장비 타입의 기본 규칙)은 하나만 둘 수 있습니다.
+     * @param rule 저장할 규칙 (ruleId 가 있으면 수정)
+     * @return 저장된 규칙
+     * @throws IllegalArgumentException 필수 값이 없거나 같은 규칙이 이미 있는 경우
+     */
+    @Transactional
+    public UidCategoryRule saveRule(UidCategoryRule rule) {
+        if (rule.getDeviceType() == null || rule.getDeviceType().isBlank()) {
+            throw new IllegalArgumentException("장비 타입은 필수 값입니다.");
+        }
+        if (rule.getUidCate() == null || rule.getUidCate().isBlank()) {
+            throw new IllegalArgumentException("UID 카테고리는 필수 값입니다.");
+        }
+        rule.setDeviceType(rule.getDeviceType().trim());
+        rule.setManageCate(rule.getManageCate() != null && !rule.getManageCate().isBlank() ? rule.getManageCate().trim() : null);
+        rule.setUidCate(rule.getUidCate().trim().toUpperCase());
+        
+        Optional<UidCategoryRule> existing = rule.getManageCate() != null
+                ? ruleRepository.findByDeviceTypeAndManageCate(rule.getDeviceType(), rule.getManageCate())
+                : ruleRepository.findByDeviceTypeAndManageCateIsNull(rule.getDeviceType());
+        if (existing.isPresent() && !existing.get().getRuleId().equals(rule.getRuleId())) {
+            throw new IllegalArgumentException(duplicateMessage(rule));
+        }
+        
+        UidCategoryRule saved;
+        try {
+            // 동시에 같은 규칙을 저장한 경우 유니크 제약 위반을 여기서 확인
+            saved = ruleRepository.saveAndFlush(rule);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(duplicateMessage(rule));
+        }
+        reloadAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public void deleteRule(Long ruleId) {
+        ruleRepository.deleteById(ruleId);
+        reloadAfterCommit();
+    }
+
+    private String duplicateMessage(UidCategoryRule rule) {
+        return rule.getManageCate() != null
+                ? "이미 같은 규칙이 있습니다: " + rule.getDeviceType() + " + " + rule.getManageCate()
+                : "이미 " + rule.getDeviceType() + " 의 기본 규칙(관리 카테고리 없음)이 있습니다.";
+    }
+
+    // 규칙 변경이 커밋된 뒤에 다시 읽음 (롤백되면 그대로 둠, 트랜잭션 밖이면 바로 다시 읽음)
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadTransaction.executeWithoutResult(status -> reload());
+            }
+        });
+    }
+
+    /**
+     * 기본 규칙 (규칙 테이블이 비어 있을 때 등록됨)
+     */
+    public static List<UidCategoryRule> defaultRules() {
+        return List.of(
+                // 데스크톱은 관리 카테고리에 따라 결정 (관리번호가 없거나 다른 카테고리면 DW)
+                new UidCategoryRule("데스크톱", null, "DW"),
+                new UidCategoryRule("데스크톱", "업무", "DW"),
+                new UidCategoryRule("데스크톱", "교육", "DE"),
+                new UidCategoryRule("데스크톱", "기타", "DK"),
+                new UidCategoryRule("데스크톱", "컴퓨터교육", "DC"),
+                new UidCategoryRule("데스크톱", "학교구매", "DS"),
+                new UidCategoryRule("데스크톱", "기증품", "DD"),
+                new UidCategoryRule("모니터", null, "MO"),
+                new UidCategoryRule("프린터", null, "PR"),
+                new UidCategoryRule("TV", null, "TV"),
+                new UidCategoryRule("전자칠판", null, "ID"),
+                new UidCategoryRule("전자교탁", null, "ED"),
+                new UidCategoryRule("DID", null, "DI"),
+                new UidCategoryRule("태블릿", null, "TB"),
+                new UidCategoryRule("프로젝트", null, "PJ"),
+                new UidCategoryRule("프로젝터", null, "PJ"));
+    }
+}
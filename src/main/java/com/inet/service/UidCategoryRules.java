@@ -0,0 +1,111 @@
+package com.inet.service;
+
+import com.inet.entity.UidCategoryRule;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * UID 카테고리 규칙을 조회용으로 한 번 변환해 둔 불변 객체
+ * 장비 타입별로 기본 카테고리와 관리 카테고리별 카테고리를 가지고 있어, 분류할 때 해시 조회 한두 번으로 끝납니다.
+ * 규칙이 바뀌면 새 객체를 만들어 통째로 바꾸므로 여러 스레드에서 잠금 없이 사용할 수 있습니다.
+ */
+public final class UidCategoryRules {
+
+    // 규칙이 없는 장비 타입의 UID 카테고리 (기타)
+    public static final String DEFAULT_UID_CATE = "ET";
+
+    private final Map<String, TypeRule> rulesByType;
+    private final int ruleCount;
+
+    private UidCategoryRules(Map<String, TypeRule> rulesByType, int ruleCount) {
+        this.rulesByType = rulesByType;
+        this.ruleCount = ruleCount;
+    }
+
+    /**
+     * 규칙 목록을 조회용 구조로 변환합니다. (같은 장비 타입/관리 카테고리 규칙이 여러 개면 뒤의 규칙 사용)
+     * @param rules UID 카테고리 규칙
+     * @return 변환된 규칙
+     */
+    public static UidCategoryRules compile(Collection<UidCategoryRule> rules) {
+        Map<String, String> defaults = new HashMap<>();
+        Map<String, Map<String, String>> byManageCate = new HashMap<>();
+        for (UidCategoryRule rule : rules) {
+            String type = normalize(rule.getDeviceType());
+            String uidCate = normalize(rule.getUidCate());
+            if (type == null || uidCate == null) {
+                continue;
+            }
+            String manageCate = normalize(rule.getManageCate());
+            if (manageCate == null) {
+                defaults.put(type, uidCate);
+            } else {
+                byManageCate.computeIfAbsent(type, t -> new HashMap<>()).put(manageCate, uidCate);
+            }
+        }
+
+        Map<String, TypeRule> rulesByType = new HashMap<>();
+        for (String type : defaults.keySet()) {
+            rulesByType.put(type, new TypeRule(defaults.get(type), Map.of()));
+        }
+        for (Map.Entry<String, Map<String, String>> entry : byManageCate.entrySet()) {
+            rulesByType.put(entry.getKey(), new TypeRule(defaults.get(entry.getKey()), Map.copyOf(entry.getValue())));
+        }
+        return new UidCategoryRules(Map.copyOf(rulesByType), rules.size());
+    }
+
+    /**
+     * 장비 타입과 관리 카테고리로 UID 카테고리를 결정합니다.
+     * @param type 장비 타입
+     * @param manageCate 관리 카테고리 (관리번호가 없으면 null)
+     * @return UID 카테고리 (규칙이 없으면 ET)
+     */
+    public String classify(String type, String manageCate) {
+        String key = normalize(type);
+        TypeRule rule = key != null ? rulesByType.get(key) : null;
+        if (rule == null) {
+            return DEFAULT_UID_CATE;
+        }
+        String cate = manageCate != null ? rule.byManageCate.get(manageCate.trim()) : null;
+        if (cate == null) {
+            cate = rule.defaultCate;
+        }
+        return cate != null ? cate : DEFAULT_UID_CATE;
+    }
+
+    /**
+     * 규칙이 등록된 장비 타입인지 확인합니다.
+     */
+    public boolean isKnownType(String type) {
+        String key = normalize(type);
+        return key != null && rulesByType.containsKey(key);
+    }
+
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * 장비 타입 하나의 규칙
+     */
+    private static final class TypeRule {
+        // 관리 카테고리 규칙에 해당하지 않을 때의 카테고리 (없으면 null)
+        final String defaultCate;
+        final Map<String, String> byManageCate;
+
+        TypeRule(String defaultCate, Map<String, String> byManageCate) {
+            this.defaultCate = defaultCate;
+            this.byManageCate = byManageCate;
+        }
+    }
+}
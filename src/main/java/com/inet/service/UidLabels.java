@@ -0,0 +1,49 @@
+package com.inet.service;
+
+import com.inet.entity.School;
+import com.inet.entity.Uid;
+
+/**
+ * 고유번호(Uid) 표시 문자열 변환
+ * 화면 표시 형식: 카테고리 + 학교코드(2자리) + 제조년(2자리, 없으면 xx) + ID번호(4자리) 예) DW01230001
+ * 엑셀 다운로드 형식: 카테고리 + ID번호 예) DW1
+ */
+public final class UidLabels {
+
+    private UidLabels() {
+    }
+
+    /**
+     * 화면에 표시하는 전체 고유번호 문자열 (장비 목록 화면과 같은 형식)
+     */
+    public static String display(Uid uid) {
+        School school = uid.getSchool();
+        return display(uid.getCate(), school != null ? school.getSchoolId() : null, uid.getMfgYear(), uid.getIdNumber());
+    }
+
+    public static String display(String cate, Long schoolId, String mfgYear, Long idNumber) {
+        String schoolCode = schoolId != null ? String.format("%02d", schoolId) : "00";
+        String year = mfgYear != null ? mfgYear : "xx";
+        String number = idNumber != null ? String.format("%04d", idNumber) : "0000";
+        return cate + schoolCode + year + number;
+    }
+
+    /**
+     * 엑셀 다운로드의 고유번호 컬럼 형식 (카테고리 + ID번호)
+     */
+    public static String exported(Uid uid) {
+        return exported(uid.getCate(), uid.getIdNumber());
+    }
+
+    public static String exported(String cate, Long idNumber) {
+        return cate + idNumber;
+    }
+
+    /**
+     * 업로드 UID 컬럼 값이 카테고리만이 아니라 번호까지 포함한 고유번호인지 확인합니다.
+     * 카테고리는 영문 2자리이므로 그보다 길면 번호가 포함된 것으로 봅니다.
+     */
+    public static boolean isNumbered(String value) {
+        return value != null && value.trim().length() > 2;
+    }
+}
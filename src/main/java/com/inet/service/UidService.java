@@ -22,10 +22,12 @@ public class UidService {
     private static final Logger log = LoggerFactory.getLogger(UidService.class);
     
     private final UidRepository uidRepository;
+    private final UidAllocator uidAllocator;
     
     @Autowired
-    public UidService(UidRepository uidRepository) {
+    public UidService(UidRepository uidRepository, UidAllocator uidAllocator) {
         this.uidRepository = uidRepository;
+        this.uidAllocator = uidAllocator;
     }
     
     /**
@@ -259,14 +261,39 @@ public class UidService {
         log.info("Creating next Uid for cate: {}, mfgYear: {}, school: {}", 
                 cate, mfgYear, school.getSchoolName());
         
-        // 해당 카테고리, 제조년, 학교의 최대 idNumber 조회
-        Long nextIdNumber = uidRepository.findTopBySchoolAndCateAndMfgYearOrderByIdNumberDesc(school, cate, mfgYear)
-                .map(uid -> uid.getIdNumber() + 1)
-                .orElse(1L); // 없으면 1부터 시작
+        // 카운터에서 번호 하나를 예약 (동시 등록 시에도 번호가 겹치지 않음)
+        Long nextIdNumber = uidAllocator.reserve(school, cate, mfgYear, 1).next();
         
         return createUidWithMfgYear(cate, nextIdNumber, mfgYear, school);
     }
 
+    /**
+     * 사용자가 지정한 번호로 제조년을 포함한 Uid 생성
+     * 이후 자동 발급 번호와 겹치지 않도록 번호 카운터에도 반영합니다.
+     * @param cate 카테고리
+     * @param idNumber ID 번호
+     * @param mfgYear 제조년 (2자리)
+     * @param school 학교
+     * @return 생성된 Uid 객체
+     */
+    public Uid createUidWithSpecifiedNumber(String cate, Long idNumber, String mfgYear, School school) {
+        uidAllocator.markUsed(school, cate, mfgYear, idNumber);
+        return createUidWithMfgYear(cate, idNumber, mfgYear, school);
+    }
+
+    /**
+     * 학교, 카테고리, 제조년의 다음 ID 번호를 여러 개 한 번에 예약
+     * 대량 등록 시 장비마다 최대 번호를 조회하지 않고 예약된 번호를 차례로 사용합니다.
+     * @param school 학교
+     * @param cate 카테고리
+     * @param mfgYear 제조년 (2자리)
+     * @param count 예약할 번호 수
+     * @return 예약된 번호 묶음
+     */
+    public UidBlock reserveIdNumbers(School school, String cate, String mfgYear, int count) {
+        return uidAllocator.reserve(school, cate, mfgYear, count);
+    }
+
     /**
      * 학교, 카테고리, 제조년, ID 번호로 Uid 조회
      * @param school 학교
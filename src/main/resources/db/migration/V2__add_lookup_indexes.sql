@@ -0,0 +1,151 @@
+-- 자주 쓰는 조회 조건의 복합 인덱스
+-- MySQL 은 CREATE INDEX IF NOT EXISTS 를 지원하지 않으므로 information_schema 에서 인덱스가 없을 때만 만듦
+-- 고유번호(학교, 카테고리, 제조년, 번호)와 취급자(학교, 이름, 직위)는 업무상 유일해야 하지만 기존 데이터에 중복이 있을 수 있으므로
+-- 여기서는 일반 인덱스만 만들고, 유니크 제약은 중복을 정리한 뒤 별도 마이그레이션으로 추가함
+
+-- 고유번호: 학교/카테고리/제조년별 다음 번호 조회 (findTopBySchoolAndCateAndMfgYearOrderByIdNumberDesc)와 번호 조회
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'uid' AND index_name = 'idx_uid_school_cate_year_number') > 0,
+    'DO 0',
+    'CREATE INDEX idx_uid_school_cate_year_number ON uid (school_id, cate, mfg_year, id_number DESC)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 고유번호: 학교/카테고리별 최대 번호 조회 (findTopBySchoolAndCateOrderByIdNumberDesc, findBySchoolAndCateAndIdNumber)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'uid' AND index_name = 'idx_uid_school_cate_number') > 0,
+    'DO 0',
+    'CREATE INDEX idx_uid_school_cate_number ON uid (school_id, cate, id_number DESC)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 고유번호: 학교 구분 없는 카테고리/번호 조회 (findByCateAndIdNumber, findTopByCateOrderByIdNumberDesc)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'uid' AND index_name = 'idx_uid_cate_number') > 0,
+    'DO 0',
+    'CREATE INDEX idx_uid_cate_number ON uid (cate, id_number DESC)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 관리번호: 학교/카테고리/연도별 번호 조회
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'manage' AND index_name = 'idx_manage_school_cate_year_num') > 0,
+    'DO 0',
+    'CREATE INDEX idx_manage_school_cate_year_num ON manage (school_id, manage_cate, year, manage_num)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 관리번호: 카테고리/연도별 최대 번호, 번호 조회 (장비 조회 조건의 관리번호 카테고리 비교도 사용)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'manage' AND index_name = 'idx_manage_cate_year_num') > 0,
+    'DO 0',
+    'CREATE INDEX idx_manage_cate_year_num ON manage (manage_cate, year, manage_num)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 이전에 엔티티 설정으로 만들어진 카테고리 단일 인덱스는 위 인덱스가 대신함
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'manage' AND index_name = 'idx_manage_cate') > 0,
+    'DROP INDEX idx_manage_cate ON manage',
+    'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 취급자: 학교 안에서 이름+직위로 조회 (findByNameAndPositionAndSchool)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'operator' AND index_name = 'idx_operator_school_name_position') > 0,
+    'DO 0',
+    'CREATE INDEX idx_operator_school_name_position ON operator (school_id, name, position)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 교실: 학교 안에서 교실명으로 조회
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'classroom' AND index_name = 'idx_classroom_school_room') > 0,
+    'DO 0',
+    'CREATE INDEX idx_classroom_school_room ON classroom (school_id, room_name)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 교실: 학교 구분 없는 교실명 조회 (findByRoomName)
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'classroom' AND index_name = 'idx_classroom_room') > 0,
+    'DO 0',
+    'CREATE INDEX idx_classroom_room ON classroom (room_name)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 장비: 조회 조건(DeviceFilter) 조합마다 사용할 인덱스 (학교 조건이 있으면 학교 ID 가 앞에 오는 인덱스 사용)
+-- 이전에 엔티티 설정으로 이미 만들어진 DB 에서는 건너뜀
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_school_type_classroom') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_school_type_classroom ON device (school_id, type, classroom_id)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_school_classroom') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_school_classroom ON device (school_id, classroom_id)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_school_manufacturer') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_school_manufacturer ON device (school_id, manufacturer)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_school_purchase_date') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_school_purchase_date ON device (school_id, purchase_date)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_school_unused') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_school_unused ON device (school_id, unused)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_type') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_type ON device (type)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_manufacturer') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_manufacturer ON device (manufacturer)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'device' AND index_name = 'idx_device_purchase_date') > 0,
+    'DO 0',
+    'CREATE INDEX idx_device_purchase_date ON device (purchase_date)');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;